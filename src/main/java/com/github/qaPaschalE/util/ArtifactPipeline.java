@@ -0,0 +1,346 @@
+package com.github.qaPaschalE.util;
+
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.logging.LogEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Failure artifacts kept out of the reports: the screenshot, DOM and browser console are captured on the
+ * scenario thread, then encoded on a background executor while the scenario goes on to release its driver.
+ *
+ * <p>Screenshots are downscaled to {@code artifacts.screenshot.max.width} and stored as JPEG (quality
+ * {@code artifacts.screenshot.jpeg.quality}); the DOM, console log and included files such as the HAR are
+ * gzipped. Files go to
+ * {@code artifacts.dir} named by the SHA-256 of their content, so identical artifacts are stored once, and the
+ * report only references them.</p>
+ */
+public class ArtifactPipeline {
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactPipeline.class);
+    private static final long AWAIT_TIMEOUT_SECONDS = 30;
+    private static final long CONSOLE_QUIET_MILLIS = 100;
+    private static final long CONSOLE_MAX_WAIT_MILLIS = 1000;
+    // Also used by the screenshot trail
+    static final ExecutorService encoder = Executors.newFixedThreadPool(
+            Math.max(1, ConfigLoader.getArtifactThreads()), runnable -> {
+                Thread thread = new Thread(runnable, "artifact-encoder");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private ArtifactPipeline() {
+    }
+
+    /**
+     * Captures the failure artifacts of the current page and starts encoding them in the background. Artifacts
+     * that cannot be captured are skipped.
+     *
+     * @param driver The WebDriver session.
+     * @return The artifacts being encoded.
+     */
+    public static Pending capture(WebDriver driver) {
+        List<Future<Artifact>> artifacts = new ArrayList<>();
+        try {
+            byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            artifacts.add(encoder.submit(() -> store("failure-screenshot", "image/jpeg", ".jpg", toJpeg(png))));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to capture screenshot: {}", e.getMessage());
+        }
+        try {
+            String dom = driver.getPageSource();
+            artifacts.add(encoder.submit(() -> store("failure-dom", "text/html", ".html.gz", gzip(dom))));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to capture DOM: {}", e.getMessage());
+        }
+        try {
+            String console = String.join("\n", consoleMessages(driver));
+            if (!console.isEmpty()) {
+                artifacts.add(encoder.submit(() -> store("failure-console", "text/plain", ".log.gz", gzip(console))));
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to capture browser console: {}", e.getMessage());
+        }
+        return new Pending(artifacts);
+    }
+
+    /**
+     * Reads the console messages of the page. DevTools replays the buffered messages when the Runtime and Log
+     * domains are enabled; other browsers need the {@code browser} log type.
+     */
+    @SuppressWarnings("unchecked")
+    private static List<String> consoleMessages(WebDriver driver) {
+        List<String> messages = new ArrayList<>();
+        if (!DevToolsSupport.isSupported(driver)) {
+            for (LogEntry entry : driver.manage().logs().get("browser")) {
+                messages.add(entry.getLevel() + " " + entry.getMessage());
+            }
+            return messages;
+        }
+        DevTools devTools = DevToolsSupport.attach(driver);
+        AtomicBoolean collecting = new AtomicBoolean(true);
+        AtomicLong lastMessageNanos = new AtomicLong(System.nanoTime());
+        // Listeners cannot be removed one by one; they stop collecting instead and go when the session is released
+        DevToolsSupport.on(devTools, "Runtime.consoleAPICalled", event -> {
+            if (collecting.get()) {
+                StringBuilder text = new StringBuilder(String.valueOf(event.get("type")));
+                for (Object arg : (List<Object>) event.get("args")) {
+                    Map<String, Object> value = (Map<String, Object>) arg;
+                    text.append(' ').append(value.containsKey("value") ? value.get("value")
+                            : value.get("description"));
+                }
+                synchronized (messages) {
+                    messages.add(text.toString());
+                }
+                lastMessageNanos.set(System.nanoTime());
+            }
+        });
+        DevToolsSupport.on(devTools, "Log.entryAdded", event -> {
+            if (collecting.get()) {
+                Map<String, Object> entry = (Map<String, Object>) event.get("entry");
+                synchronized (messages) {
+                    messages.add(entry.get("level") + " [" + entry.get("source") + "] " + entry.get("text")
+                            + (entry.get("url") == null ? "" : " (" + entry.get("url") + ")"));
+                }
+                lastMessageNanos.set(System.nanoTime());
+            }
+        });
+        DevToolsSupport.send(devTools, "Runtime.enable", new HashMap<>());
+        DevToolsSupport.send(devTools, "Log.enable", new HashMap<>());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CONSOLE_MAX_WAIT_MILLIS);
+        long quietNanos = TimeUnit.MILLISECONDS.toNanos(CONSOLE_QUIET_MILLIS);
+        try {
+            // The replayed messages arrive asynchronously; wait until they stop
+            while (System.nanoTime() < deadline && System.nanoTime() - lastMessageNanos.get() < quietNanos) {
+                Thread.sleep(10);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            collecting.set(false);
+            DevToolsSupport.send(devTools, "Log.disable", new HashMap<>());
+            DevToolsSupport.send(devTools, "Runtime.disable", new HashMap<>());
+        }
+        synchronized (messages) {
+            return new ArrayList<>(messages);
+        }
+    }
+
+    private static byte[] toJpeg(byte[] png) throws IOException {
+        return encodeJpeg(scaleToWidth(decodePng(png), ConfigLoader.getArtifactScreenshotMaxWidth()));
+    }
+
+    static BufferedImage decodePng(byte[] png) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        if (image == null) {
+            throw new IOException("Screenshot is not a readable image");
+        }
+        return image;
+    }
+
+    /**
+     * @param source   An image.
+     * @param maxWidth The maximum width, 0 to keep the size.
+     * @return An opaque RGB copy, scaled down to at most {@code maxWidth} pixels wide.
+     */
+    static BufferedImage scaleToWidth(BufferedImage source, int maxWidth) {
+        double scale = maxWidth > 0 && source.getWidth() > maxWidth ? (double) maxWidth / source.getWidth() : 1;
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+        // JPEG has no alpha channel, so draw onto an opaque white canvas
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        graphics.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+        graphics.dispose();
+        return target;
+    }
+
+    static byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(ConfigLoader.getArtifactJpegQuality() / 100f);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        return gzip(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream zip = new GZIPOutputStream(out)) {
+            zip.write(content);
+        }
+        return out.toByteArray();
+    }
+
+    static Artifact store(String name, String mediaType, String extension, byte[] content)
+            throws IOException {
+        String hash = sha256(content);
+        File dir = new File(ConfigLoader.getArtifactsDir());
+        File file = new File(dir, hash + extension);
+        if (!file.isFile()) {
+            Files.createDirectories(dir.toPath());
+            Path temp = Files.createTempFile(dir.toPath(), "artifact-", ".tmp");
+            Files.write(temp, content);
+            Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        return new Artifact(name, mediaType, hash, file, content.length);
+    }
+
+    private static String extension(File file) {
+        int dot = file.getName().lastIndexOf('.');
+        return dot < 0 ? "" : file.getName().substring(dot);
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(content)) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Artifacts whose encoding was started by {@link #capture(WebDriver)}.
+     */
+    public static final class Pending {
+        private final List<Future<Artifact>> artifacts;
+
+        private Pending(List<Future<Artifact>> artifacts) {
+            this.artifacts = artifacts;
+        }
+
+        /**
+         * Adds a file written elsewhere, such as the HAR recording. It is gzipped and stored in the background
+         * like the captured artifacts, and deleted once stored.
+         *
+         * @param name      The artifact name.
+         * @param mediaType The media type of the file.
+         * @param file      The file.
+         */
+        public void include(String name, String mediaType, File file) {
+            artifacts.add(encoder.submit(() -> {
+                Artifact artifact = store(name, mediaType, extension(file) + ".gz",
+                        gzip(Files.readAllBytes(file.toPath())));
+                Files.delete(file.toPath());
+                return artifact;
+            }));
+        }
+
+        /**
+         * Waits for the artifacts to be stored. Artifacts that fail to encode are logged and left out.
+         *
+         * @return The stored artifacts.
+         */
+        public List<Artifact> await() {
+            List<Artifact> stored = new ArrayList<>();
+            for (Future<Artifact> artifact : artifacts) {
+                try {
+                    stored.add(artifact.get(AWAIT_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+                } catch (ExecutionException | TimeoutException e) {
+                    logger.warn("Failed to store failure artifact: {}", e.getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            return stored;
+        }
+    }
+
+    /**
+     * A stored artifact.
+     */
+    public static final class Artifact {
+        private final String name;
+        private final String mediaType;
+        private final String hash;
+        private final File file;
+        private final long size;
+
+        private Artifact(String name, String mediaType, String hash, File file, long size) {
+            this.name = name;
+            this.mediaType = mediaType;
+            this.hash = hash;
+            this.file = file;
+            this.size = size;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return The media type of the content, before compression.
+         */
+        public String getMediaType() {
+            return mediaType;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        /**
+         * @return The artifact's location, for a {@code text/uri-list} attachment.
+         */
+        public String getUri() {
+            return file.getAbsoluteFile().toURI().toString();
+        }
+
+        @Override
+        public String toString() {
+            return name + " (" + mediaType + ", " + size + " bytes, sha256 " + hash + ")";
+        }
+    }
+}
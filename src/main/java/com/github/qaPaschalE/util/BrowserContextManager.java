@@ -0,0 +1,167 @@
+package com.github.qaPaschalE.util;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.HasCdp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs every scenario in its own isolated browser context (like an incognito window) inside one shared
+ * Chrome process. Each scenario gets a lightweight WebDriver session attached to the shared browser through
+ * its DevTools address; the session creates a context with {@code Target.createBrowserContext}, opens a tab
+ * in it and switches to that tab. Cookies, storage and cache are separated per context, and disposing the
+ * context on release throws all of it away.
+ *
+ * <p>Attached sessions outlive their contexts: on release the session switches back to the shared browser's
+ * own tab and is kept for the next scenario, so only the first scenario on each parallel thread pays for
+ * starting a chromedriver session.</p>
+ */
+class BrowserContextManager {
+    private static final Logger logger = LoggerFactory.getLogger(BrowserContextManager.class);
+
+    private final Supplier<WebDriver> hostFactory;
+    private final Function<ChromeOptions, WebDriver> sessionFactory;
+    private final Map<WebDriver, String> contexts = new ConcurrentHashMap<>();
+    // The shared browser's tab each attached session started on; it outlives every context
+    private final Map<WebDriver, String> homeWindows = new ConcurrentHashMap<>();
+    private final Deque<WebDriver> idleSessions = new ConcurrentLinkedDeque<>();
+    private WebDriver host;
+    private String debuggerAddress;
+
+    /**
+     * @param hostFactory    Starts the shared browser.
+     * @param sessionFactory Opens a WebDriver session with the given options.
+     */
+    BrowserContextManager(Supplier<WebDriver> hostFactory, Function<ChromeOptions, WebDriver> sessionFactory) {
+        this.hostFactory = hostFactory;
+        this.sessionFactory = sessionFactory;
+    }
+
+    /**
+     * Opens a new isolated browser context in the shared browser and returns a session focused on it.
+     *
+     * @return A WebDriver whose current window lives in a fresh browser context.
+     */
+    WebDriver acquire() {
+        String address = getDebuggerAddress();
+        WebDriver driver = idleSessions.poll();
+        if (driver == null) {
+            ChromeOptions options = new ChromeOptions();
+            options.setExperimentalOption("debuggerAddress", address);
+            driver = sessionFactory.apply(options);
+        }
+        try {
+            homeWindows.computeIfAbsent(driver, WebDriver::getWindowHandle);
+            HasCdp cdp = (HasCdp) driver;
+            Map<String, Object> contextParams = new HashMap<>();
+            contextParams.put("disposeOnDetach", false);
+            String contextId = (String) cdp.executeCdpCommand("Target.createBrowserContext", contextParams)
+                    .get("browserContextId");
+
+            Map<String, Object> targetParams = new HashMap<>();
+            targetParams.put("url", "about:blank");
+            targetParams.put("browserContextId", contextId);
+            String targetId = (String) cdp.executeCdpCommand("Target.createTarget", targetParams).get("targetId");
+
+            // chromedriver uses DevTools target ids as window handles
+            driver.switchTo().window(targetId);
+            contexts.put(driver, contextId);
+            logger.debug("Opened browser context {} for thread {}", contextId, Thread.currentThread().getName());
+            return driver;
+        } catch (RuntimeException e) {
+            quit(driver);
+            throw e;
+        }
+    }
+
+    /**
+     * Disposes the session's browser context (closing its tabs and dropping its cookies, storage and cache)
+     * and keeps the attached session for the next scenario. The shared browser keeps running.
+     *
+     * @param driver A driver returned by {@link #acquire()}.
+     */
+    void release(WebDriver driver) {
+        String contextId = contexts.remove(driver);
+        try {
+            // Leave the context's tab first, so the session still has a window once the context is gone
+            driver.switchTo().window(homeWindows.get(driver));
+            if (contextId != null) {
+                Map<String, Object> params = new HashMap<>();
+                params.put("browserContextId", contextId);
+                ((HasCdp) driver).executeCdpCommand("Target.disposeBrowserContext", params);
+            }
+            idleSessions.push(driver);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to dispose browser context {}: {}", contextId, e.getMessage());
+            quit(driver);
+        }
+    }
+
+    /**
+     * Ends the attached sessions and quits the shared browser.
+     */
+    synchronized void shutdown() {
+        WebDriver idle;
+        while ((idle = idleSessions.poll()) != null) {
+            quit(idle);
+        }
+        if (host != null) {
+            try {
+                host.quit();
+            } catch (RuntimeException e) {
+                logger.warn("Failed to quit shared browser: {}", e.getMessage());
+            }
+            host = null;
+        }
+    }
+
+    private void quit(WebDriver driver) {
+        homeWindows.remove(driver);
+        try {
+            // Ends the attached chromedriver session only; the browser it attached to is left running
+            driver.quit();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to end attached session: {}", e.getMessage());
+        }
+    }
+
+    private synchronized String getDebuggerAddress() {
+        if (host != null && !isHealthy(host)) {
+            logger.warn("Shared browser is not responding, starting a new one");
+            shutdown();
+        }
+        if (host == null) {
+            host = hostFactory.get();
+            Capabilities capabilities = ((HasCapabilities) host).getCapabilities();
+            Object chromeOptions = capabilities.getCapability(ChromeOptions.CAPABILITY);
+            if (!(chromeOptions instanceof Map) || ((Map<?, ?>) chromeOptions).get("debuggerAddress") == null) {
+                shutdown();
+                throw new IllegalStateException("Browser context mode requires a Chromium browser that reports "
+                        + "a DevTools debuggerAddress.");
+            }
+            debuggerAddress = String.valueOf(((Map<?, ?>) chromeOptions).get("debuggerAddress"));
+            logger.info("Shared browser for browser-context sessions listening on {}", debuggerAddress);
+        }
+        return debuggerAddress;
+    }
+
+    private static boolean isHealthy(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.github.qaPaschalE.util;
+
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+/**
+ * Browser options built from {@code config.properties}. A named profile is selected with
+ * {@code browser.profile} (or {@code -Dbrowser.profile=...}); each setting is looked up as
+ * {@code browser.profile.<name>.<setting>}, then in the built-in profile of that name, then as
+ * {@code browser.<setting>}.
+ *
+ * <p>Supported settings: {@code headless}, {@code page.load.strategy} (normal, eager, none),
+ * {@code disable.images}, {@code disable.extensions}, {@code window.size} (e.g. 1920x1080; empty maximizes)
+ * and {@code user.data.dir.template} (a profile directory copied for every session).</p>
+ */
+class BrowserProfile {
+    private static final Logger logger = LoggerFactory.getLogger(BrowserProfile.class);
+    private static final Map<String, Map<String, String>> BUILT_IN_PROFILES = new HashMap<>();
+    private static final List<Path> userDataDirCopies = new CopyOnWriteArrayList<>();
+    // The copy each session runs from, deleted once the session has quit
+    private static final Map<WebDriver, Path> sessionUserDataDirs = new ConcurrentHashMap<>();
+
+    static {
+        Map<String, String> ciFast = new HashMap<>();
+        ciFast.put("headless", "true");
+        ciFast.put("page.load.strategy", "eager");
+        ciFast.put("disable.images", "true");
+        ciFast.put("disable.extensions", "true");
+        ciFast.put("window.size", "1920x1080");
+        BUILT_IN_PROFILES.put("ci-fast", ciFast);
+
+        Map<String, String> debug = new HashMap<>();
+        debug.put("headless", "false");
+        debug.put("page.load.strategy", "normal");
+        debug.put("window.size", "");
+        BUILT_IN_PROFILES.put("debug", debug);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(BrowserProfile::deleteUserDataDirCopies,
+                "browser-profile-cleanup"));
+    }
+
+    private final String name;
+    private final String browserType;
+    private Path userDataDir;
+
+    private BrowserProfile(String name, String browserType) {
+        this.name = name;
+        this.browserType = browserType;
+    }
+
+    /**
+     * @return The profile selected for this run.
+     */
+    static BrowserProfile fromConfig() {
+        return new BrowserProfile(ConfigLoader.getBrowserProfile(), ConfigLoader.getBrowserType().toLowerCase());
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getBrowserType() {
+        return browserType;
+    }
+
+    ChromeOptions chromeOptions() {
+        return applyChromiumSettings(new ChromeOptions());
+    }
+
+    EdgeOptions edgeOptions() {
+        return applyChromiumSettings(new EdgeOptions());
+    }
+
+    FirefoxOptions firefoxOptions() {
+        FirefoxOptions options = new FirefoxOptions();
+        options.setPageLoadStrategy(getPageLoadStrategy());
+        if (isEnabled("headless")) {
+            options.addArguments("-headless");
+        }
+        if (isEnabled("disable.images")) {
+            options.addPreference("permissions.default.image", 2);
+        }
+        Dimension windowSize = getWindowSize();
+        if (windowSize != null) {
+            options.addArguments("--width=" + windowSize.getWidth(), "--height=" + windowSize.getHeight());
+        }
+        Path userDataDir = copyUserDataDirTemplate();
+        if (userDataDir != null) {
+            options.addArguments("-profile", userDataDir.toString());
+        }
+        return options;
+    }
+
+    /**
+     * Applies the window and timeout settings to a started session.
+     *
+     * @param driver The new session.
+     */
+    void configure(WebDriver driver) {
+        Dimension windowSize = getWindowSize();
+        if (windowSize != null) {
+            driver.manage().window().setSize(windowSize);
+        } else if (!isEnabled("headless")) {
+            driver.manage().window().maximize();
+        }
+        configureTimeouts(driver);
+    }
+
+    /**
+     * Applies only the timeout settings, for a session attached to a browser whose windows belong to another
+     * session.
+     *
+     * @param driver The new session.
+     */
+    static void configureTimeouts(WebDriver driver) {
+        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(ConfigLoader.getImplicitWaitTime()));
+        driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(ConfigLoader.getPageLoadTimeout()));
+    }
+
+    /**
+     * Links the user-data-dir copy made for this profile's options to the session started from them, so
+     * {@link #deleteUserDataDir(WebDriver)} can remove it when the session quits.
+     *
+     * @param driver The new session.
+     */
+    void bindUserDataDir(WebDriver driver) {
+        if (userDataDir != null) {
+            sessionUserDataDirs.put(driver, userDataDir);
+        }
+    }
+
+    /**
+     * Deletes the user-data-dir copy of a session that has quit. Copies that cannot be deleted yet are retried
+     * at JVM exit.
+     *
+     * @param driver A session that has quit.
+     */
+    static void deleteUserDataDir(WebDriver driver) {
+        Path copy = sessionUserDataDirs.remove(driver);
+        if (copy != null && delete(copy)) {
+            userDataDirCopies.remove(copy);
+        }
+    }
+
+    private <T extends ChromiumOptions<T>> T applyChromiumSettings(T options) {
+        options.setPageLoadStrategy(getPageLoadStrategy());
+        if (isEnabled("headless")) {
+            options.addArguments("--headless=new");
+        }
+        if (isEnabled("disable.images")) {
+            options.setExperimentalOption("prefs",
+                    Collections.singletonMap("profile.managed_default_content_settings.images", 2));
+            options.addArguments("--blink-settings=imagesEnabled=false");
+        }
+        if (isEnabled("disable.extensions")) {
+            options.addArguments("--disable-extensions");
+        }
+        Dimension windowSize = getWindowSize();
+        if (windowSize != null) {
+            options.addArguments("--window-size=" + windowSize.getWidth() + "," + windowSize.getHeight());
+        }
+        Path userDataDir = copyUserDataDirTemplate();
+        if (userDataDir != null) {
+            options.addArguments("--user-data-dir=" + userDataDir);
+        }
+        return options;
+    }
+
+    private String getSetting(String key, String defaultValue) {
+        String value = ConfigLoader.getProperty("browser.profile." + name + "." + key, null);
+        if (value == null && BUILT_IN_PROFILES.containsKey(name)) {
+            value = BUILT_IN_PROFILES.get(name).get(key);
+        }
+        if (value == null) {
+            value = ConfigLoader.getProperty("browser." + key, defaultValue);
+        }
+        return value.trim();
+    }
+
+    private boolean isEnabled(String key) {
+        return Boolean.parseBoolean(getSetting(key, "false"));
+    }
+
+    private PageLoadStrategy getPageLoadStrategy() {
+        String strategy = getSetting("page.load.strategy", "normal");
+        try {
+            return PageLoadStrategy.valueOf(strategy.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid value for 'page.load.strategy' in browser profile '" + name
+                    + "': " + strategy, e);
+        }
+    }
+
+    private Dimension getWindowSize() {
+        String size = getSetting("window.size", "");
+        if (size.isEmpty()) {
+            return null;
+        }
+        String[] parts = size.toLowerCase().split("[x,]");
+        try {
+            return new Dimension(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid value for 'window.size' in browser profile '" + name + "': "
+                    + size, e);
+        }
+    }
+
+    /**
+     * Copies the configured user-data-dir template so every session gets its own pre-seeded profile
+     * (browsers lock the directory they run from).
+     */
+    private Path copyUserDataDirTemplate() {
+        String template = getSetting("user.data.dir.template", "");
+        if (template.isEmpty()) {
+            return null;
+        }
+        Path source = Paths.get(template);
+        if (!Files.isDirectory(source)) {
+            throw new IllegalStateException("Browser user-data-dir template does not exist: " + source);
+        }
+        try {
+            Path target = Files.createTempDirectory("browser-profile-" + name + "-");
+            Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    Files.createDirectories(target.resolve(source.relativize(dir).toString()));
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    if (!file.getFileName().toString().startsWith("Singleton")) {
+                        Files.copy(file, target.resolve(source.relativize(file).toString()),
+                                StandardCopyOption.REPLACE_EXISTING);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+            userDataDirCopies.add(target);
+            userDataDir = target;
+            return target;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to copy browser user-data-dir template " + source, e);
+        }
+    }
+
+    private static void deleteUserDataDirCopies() {
+        for (Path copy : userDataDirCopies) {
+            delete(copy);
+        }
+    }
+
+    private static boolean delete(Path copy) {
+        try (Stream<Path> paths = Files.walk(copy)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            logger.warn("Failed to delete browser profile copy {}: {}", copy, e.getMessage());
+        }
+        return !Files.exists(copy);
+    }
+}
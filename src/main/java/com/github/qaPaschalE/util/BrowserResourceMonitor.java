@@ -0,0 +1,272 @@
+package com.github.qaPaschalE.util;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Samples how much memory a browser session holds when a scenario gets and releases it, to catch sessions that
+ * grow from scenario to scenario when they are reused.
+ *
+ * <p>Each sample records the JS heap in use, the number of DOM nodes and the accumulated layout time from the
+ * DevTools {@code Performance.getMetrics} command ({@code performance.memory} and a DOM count on browsers without
+ * DevTools), plus the resident memory of the browser process tree on Linux. Samples are appended to
+ * {@code browser.monitor.csv}. When a released session exceeds one of the {@code browser.monitor.max.*} limits,
+ * {@link #sample} returns a recycle reason so the pool replaces the session instead of reusing it.</p>
+ */
+public class BrowserResourceMonitor {
+    private static final Logger logger = LoggerFactory.getLogger(BrowserResourceMonitor.class);
+    private static final ThreadLocal<String> lastReport = new ThreadLocal<>();
+    private static final Object csvLock = new Object();
+    private static boolean csvStarted;
+
+    private static final String FALLBACK_SCRIPT =
+            "return [window.performance && performance.memory ? performance.memory.usedJSHeapSize : -1,"
+            + "    document.getElementsByTagName('*').length];";
+
+    private BrowserResourceMonitor() {
+    }
+
+    /**
+     * Records a sample when {@code browser.monitor.enabled=true}.
+     *
+     * @param driver   The session.
+     * @param boundary "start" or "end" of the scenario.
+     * @return A recycle reason such as "heap-limit" if the sample exceeds a limit, otherwise null.
+     */
+    static String sample(WebDriver driver, String boundary) {
+        if (!ConfigLoader.isBrowserMonitorEnabled()) {
+            return null;
+        }
+        try {
+            long[] page = pageMetrics(driver);
+            long rssKb = browserRssKb(driver);
+            Sample sample = new Sample(page[0], page[1], page[2], rssKb);
+            append(sessionId(driver), boundary, sample);
+            String limit = exceededLimit(sample);
+            if ("end".equals(boundary)) {
+                lastReport.set(sample + (limit == null ? "" : ", recycling session: " + limit));
+            }
+            return limit;
+        } catch (RuntimeException e) {
+            logger.warn("Failed to sample browser resources: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Returns the resources the current thread's session held when it was last released, and clears it.
+     *
+     * @return e.g. {@code "JS heap 45.2 MB, 3120 nodes, layout 118 ms, RSS 612 MB"}, or null.
+     */
+    public static String takeReport() {
+        String report = lastReport.get();
+        lastReport.remove();
+        return report;
+    }
+
+    /**
+     * @return {JS heap bytes, DOM nodes, layout milliseconds}, -1 where unknown.
+     */
+    @SuppressWarnings("unchecked")
+    private static long[] pageMetrics(WebDriver driver) {
+        if (DevToolsSupport.isSupported(driver)) {
+            DevTools devTools = DevToolsSupport.attach(driver);
+            DevToolsSupport.send(devTools, "Performance.enable", new HashMap<>());
+            Map<String, Object> result = DevToolsSupport.send(devTools, "Performance.getMetrics", new HashMap<>());
+            Map<String, Double> metrics = new HashMap<>();
+            for (Map<String, Object> metric : (List<Map<String, Object>>) result.get("metrics")) {
+                metrics.put((String) metric.get("name"), ((Number) metric.get("value")).doubleValue());
+            }
+            return new long[]{
+                    metrics.getOrDefault("JSHeapUsedSize", -1d).longValue(),
+                    metrics.getOrDefault("Nodes", -1d).longValue(),
+                    // LayoutDuration is reported in seconds
+                    Math.round(metrics.getOrDefault("LayoutDuration", -0.001d) * 1000)};
+        }
+        List<Number> values = (List<Number>) ((JavascriptExecutor) driver).executeScript(FALLBACK_SCRIPT);
+        return new long[]{values.get(0).longValue(), values.get(1).longValue(), -1};
+    }
+
+    /**
+     * Sums VmRSS over the browser's main process and its descendants (GPU, renderers, utilities).
+     *
+     * @return The resident memory in KB, or -1 if the browser process cannot be found on this machine.
+     */
+    private static long browserRssKb(WebDriver driver) {
+        File proc = new File("/proc");
+        String marker = browserProcessMarker(driver);
+        if (marker == null || !new File(proc, "self/status").isFile()) {
+            return -1;
+        }
+        Map<Integer, List<Integer>> children = new HashMap<>();
+        List<Integer> roots = new ArrayList<>();
+        File[] entries = proc.listFiles((dir, name) -> name.matches("\\d+"));
+        for (File entry : entries == null ? new File[0] : entries) {
+            try {
+                int pid = Integer.parseInt(entry.getName());
+                String stat = new String(Files.readAllBytes(new File(entry, "stat").toPath()), StandardCharsets.UTF_8);
+                // The field after the parenthesised command name is the state, then the parent pid
+                int parent = Integer.parseInt(stat.substring(stat.lastIndexOf(')') + 2).split(" ")[1]);
+                children.computeIfAbsent(parent, p -> new ArrayList<>()).add(pid);
+                String cmdline = new String(Files.readAllBytes(new File(entry, "cmdline").toPath()),
+                        StandardCharsets.UTF_8).replace('\0', ' ');
+                if (cmdline.contains(marker) && !cmdline.contains("--type=")) {
+                    roots.add(pid);
+                }
+            } catch (IOException | RuntimeException e) {
+                // The process exited while being read
+            }
+        }
+        if (roots.isEmpty()) {
+            return -1;
+        }
+        long totalKb = 0;
+        Set<Integer> seen = new HashSet<>();
+        Deque<Integer> pending = new ArrayDeque<>(roots);
+        while (!pending.isEmpty()) {
+            int pid = pending.pop();
+            if (!seen.add(pid)) {
+                continue;
+            }
+            totalKb += rssKb(pid);
+            pending.addAll(children.getOrDefault(pid, new ArrayList<>()));
+        }
+        return totalKb;
+    }
+
+    private static long rssKb(int pid) {
+        try {
+            for (String line : Files.readAllLines(new File("/proc/" + pid + "/status").toPath())) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", ""));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // The process exited while being read
+        }
+        return 0;
+    }
+
+    /**
+     * @return A command line argument identifying the browser's main process, or null if unknown.
+     */
+    private static String browserProcessMarker(WebDriver driver) {
+        if (!(driver instanceof HasCapabilities)) {
+            return null;
+        }
+        Capabilities capabilities = ((HasCapabilities) driver).getCapabilities();
+        for (String name : new String[]{"chrome", "msedge"}) {
+            Object info = capabilities.getCapability(name);
+            if (info instanceof Map && ((Map<?, ?>) info).get("userDataDir") != null) {
+                return "--user-data-dir=" + ((Map<?, ?>) info).get("userDataDir");
+            }
+        }
+        for (String name : new String[]{"goog:chromeOptions", "ms:edgeOptions"}) {
+            Object options = capabilities.getCapability(name);
+            if (options instanceof Map && ((Map<?, ?>) options).get("debuggerAddress") != null) {
+                String address = String.valueOf(((Map<?, ?>) options).get("debuggerAddress"));
+                return "--remote-debugging-port=" + address.substring(address.lastIndexOf(':') + 1);
+            }
+        }
+        return null;
+    }
+
+    private static String exceededLimit(Sample sample) {
+        long maxHeapMb = ConfigLoader.getBrowserMonitorLimit("heap.mb");
+        long maxNodes = ConfigLoader.getBrowserMonitorLimit("nodes");
+        long maxRssMb = ConfigLoader.getBrowserMonitorLimit("rss.mb");
+        if (maxHeapMb > 0 && sample.heapBytes > maxHeapMb * 1024 * 1024) {
+            return "heap-limit";
+        }
+        if (maxNodes > 0 && sample.nodes > maxNodes) {
+            return "nodes-limit";
+        }
+        if (maxRssMb > 0 && sample.rssKb > maxRssMb * 1024) {
+            return "rss-limit";
+        }
+        return null;
+    }
+
+    private static String sessionId(WebDriver driver) {
+        return driver instanceof RemoteWebDriver && ((RemoteWebDriver) driver).getSessionId() != null
+                ? ((RemoteWebDriver) driver).getSessionId().toString()
+                : Integer.toHexString(System.identityHashCode(driver));
+    }
+
+    private static void append(String session, String boundary, Sample sample) {
+        synchronized (csvLock) {
+            File csv = new File(ConfigLoader.getBrowserMonitorCsv());
+            if (csv.getParentFile() != null) {
+                csv.getParentFile().mkdirs();
+            }
+            // Every run starts a new time series
+            boolean append = csvStarted;
+            try (PrintWriter writer = new PrintWriter(new FileWriter(csv, append))) {
+                if (!append) {
+                    writer.println("timestamp,session,thread,boundary,js_heap_bytes,nodes,layout_ms,rss_kb");
+                    csvStarted = true;
+                }
+                writer.println(Instant.now() + "," + session + "," + Thread.currentThread().getName() + ","
+                        + boundary + "," + sample.heapBytes + "," + sample.nodes + "," + sample.layoutMillis + ","
+                        + sample.rssKb);
+            } catch (IOException e) {
+                logger.warn("Failed to write {}: {}", csv, e.getMessage());
+            }
+        }
+    }
+
+    private static final class Sample {
+        private final long heapBytes;
+        private final long nodes;
+        private final long layoutMillis;
+        private final long rssKb;
+
+        private Sample(long heapBytes, long nodes, long layoutMillis, long rssKb) {
+            this.heapBytes = heapBytes;
+            this.nodes = nodes;
+            this.layoutMillis = layoutMillis;
+            this.rssKb = rssKb;
+        }
+
+        @Override
+        public String toString() {
+            List<String> parts = new ArrayList<>();
+            if (heapBytes >= 0) {
+                parts.add(String.format(Locale.ROOT, "JS heap %.1f MB", heapBytes / 1048576.0));
+            }
+            if (nodes >= 0) {
+                parts.add(nodes + " nodes");
+            }
+            if (layoutMillis >= 0) {
+                parts.add("layout " + layoutMillis + " ms");
+            }
+            if (rssKb >= 0) {
+                parts.add("RSS " + rssKb / 1024 + " MB");
+            }
+            return String.join(", ", parts);
+        }
+    }
+}
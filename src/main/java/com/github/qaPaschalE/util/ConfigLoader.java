@@ -5,6 +5,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
 public class ConfigLoader {
@@ -72,8 +74,16 @@ public class ConfigLoader {
         return properties.getProperty("browser.type", "chrome");
     }
 
+    public static String getBrowserProfile() {
+        String profile = System.getProperty("browser.profile");
+        if (profile != null && !profile.isEmpty()) {
+            return profile;
+        }
+        return properties.getProperty("browser.profile", "default").trim();
+    }
+
     public static int getImplicitWaitTime() {
-        String waitTime = properties.getProperty("webdriver.implicit.wait", "10");
+        String waitTime = properties.getProperty("webdriver.implicit.wait", "0");
         try {
             return Integer.parseInt(waitTime);
         } catch (NumberFormatException e) {
@@ -90,6 +100,243 @@ public class ConfigLoader {
         }
     }
 
+    public static int getWaitTimeout(String condition) {
+        return getIntProperty("wait.timeout." + condition, properties.getProperty("wait.timeout", "10"));
+    }
+
+    public static int getNetworkQuietMillis() {
+        return getIntProperty("wait.network.quiet.millis", "500");
+    }
+
+    public static boolean isSmartSleepEnabled() {
+        return getBooleanProperty("wait.sleep.smart", "false");
+    }
+
+    /**
+     * @return True to track each Chromium session's requests through DevTools for the network idle waits; defaults
+     * to {@code wait.sleep.smart}, whose sleeps wait for network idle too.
+     */
+    public static boolean isNetworkTrackingEnabled() {
+        return getBooleanProperty("wait.network.track", String.valueOf(isSmartSleepEnabled()));
+    }
+
+    public static String getWaitMode() {
+        return properties.getProperty("wait.mode", "poll").trim().toLowerCase();
+    }
+
+    public static int getWaitPollingMillis() {
+        return getIntProperty("wait.polling.millis", "100");
+    }
+
+    public static boolean isLocatorCacheEnabled() {
+        return getBooleanProperty("locator.cache.enabled", "true");
+    }
+
+    public static String getTypingStrategy() {
+        return properties.getProperty("typing.strategy", "native").trim().toLowerCase();
+    }
+
+    public static String getTypingFastStrategy() {
+        return properties.getProperty("typing.fast.strategy", "insert").trim().toLowerCase();
+    }
+
+    public static int getTypingFastThreshold() {
+        return getIntProperty("typing.fast.threshold", "200");
+    }
+
+    /**
+     * @return The JSON lines file page performance records are appended to, or null if not configured.
+     */
+    public static String getPerformanceHistoryFile() {
+        String file = properties.getProperty("performance.history.file", "");
+        return file.trim().isEmpty() ? null : file.trim();
+    }
+
+    public static String getArtifactsDir() {
+        return properties.getProperty("artifacts.dir", "target/artifacts").trim();
+    }
+
+    public static int getArtifactThreads() {
+        return getIntProperty("artifacts.threads", "2");
+    }
+
+    public static int getArtifactScreenshotMaxWidth() {
+        return getIntProperty("artifacts.screenshot.max.width", "1280");
+    }
+
+    public static int getArtifactJpegQuality() {
+        return getIntProperty("artifacts.screenshot.jpeg.quality", "80");
+    }
+
+    public static boolean isScreenshotTrailEnabled() {
+        return getBooleanProperty("screenshot.trail.enabled", "false");
+    }
+
+    public static int getScreenshotTrailFrameWidth() {
+        return getIntProperty("screenshot.trail.frame.width", "320");
+    }
+
+    /**
+     * @return The dHash distance up to which a trail frame counts as unchanged, or -1 to skip only identical
+     * screenshots.
+     */
+    public static int getScreenshotTrailHashDistance() {
+        return getIntProperty("screenshot.trail.hash.distance", "-1");
+    }
+
+    public static int getScreenshotTrailMaxFrames() {
+        return getIntProperty("screenshot.trail.max.frames", "40");
+    }
+
+    public static String getVisualBaselineDir() {
+        return properties.getProperty("visual.baseline.dir", "src/test/resources/visual-baselines").trim();
+    }
+
+    public static boolean isVisualBaselineUpdate() {
+        return getBooleanProperty("visual.baseline.update", "false");
+    }
+
+    public static List<String> getVisualIgnoreSelectors() {
+        return getListProperty("visual.ignore.selectors");
+    }
+
+    /**
+     * @return The perceptual hash distance above which a snapshot fails without a pixel diff, or -1 to always run
+     * the pixel diff.
+     */
+    public static int getVisualHashFailDistance() {
+        return getIntProperty("visual.hash.fail.distance", "-1");
+    }
+
+    public static int getVisualPixelTolerance() {
+        return getIntProperty("visual.pixel.tolerance", "16");
+    }
+
+    public static double getVisualMaxDiffRatio() {
+        return getDoubleProperty("visual.max.diff.ratio", "0");
+    }
+
+    public static int getVisualTileSize() {
+        return getIntProperty("visual.tile.size", "256");
+    }
+
+    public static boolean isHarEnabled() {
+        return getBooleanProperty("har.enabled", "false");
+    }
+
+    public static String getHarDir() {
+        return properties.getProperty("har.dir", "target/har").trim();
+    }
+
+    public static int getHarBufferEntries() {
+        return getIntProperty("har.buffer.entries", "500");
+    }
+
+    public static long getHarBodyMaxBytes() {
+        return getLongProperty("har.body.max.bytes", "0");
+    }
+
+    public static String getSessionStateDir() {
+        return properties.getProperty("session.state.dir", "target/session-state").trim();
+    }
+
+    public static int getSessionStateMaxAgeMinutes() {
+        return getIntProperty("session.state.max.age.minutes", "60");
+    }
+
+    /**
+     * @param name    The saved session name.
+     * @param setting The refresh setting, e.g. "url" for {@code session.refresh.<name>.url}.
+     * @return The setting, or null if it is not configured.
+     */
+    public static String getSessionRefreshSetting(String name, String setting) {
+        String value = properties.getProperty("session.refresh." + name + "." + setting);
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+
+    public static String getSessionMode() {
+        return properties.getProperty("webdriver.session.mode", "new").trim().toLowerCase();
+    }
+
+    public static int getPoolSize() {
+        return getIntProperty("webdriver.pool.size", "2");
+    }
+
+    public static int getPoolMaxUses() {
+        return getIntProperty("webdriver.pool.max.uses", "25");
+    }
+
+    public static int getPoolCheckoutTimeout() {
+        return getIntProperty("webdriver.pool.checkout.timeout", "120");
+    }
+
+    public static boolean isPoolRecycleOnFailure() {
+        return getBooleanProperty("webdriver.pool.recycle.on.failure", "true");
+    }
+
+    public static boolean isBrowserMonitorEnabled() {
+        return getBooleanProperty("browser.monitor.enabled", "false");
+    }
+
+    public static String getBrowserMonitorCsv() {
+        return properties.getProperty("browser.monitor.csv", "target/browser-resources.csv").trim();
+    }
+
+    /**
+     * @param resource "heap.mb", "nodes" or "rss.mb".
+     * @return The limit for {@code browser.monitor.max.<resource>}, 0 if unlimited.
+     */
+    public static long getBrowserMonitorLimit(String resource) {
+        return getIntProperty("browser.monitor.max." + resource, "0");
+    }
+
+    public static boolean isWebDriverOffline() {
+        return getBooleanProperty("webdriver.offline", "false");
+    }
+
+    public static String getWebDriverBinaryPath() {
+        return properties.getProperty("webdriver.driver.path");
+    }
+
+    public static String getWebDriverCacheDir() {
+        return properties.getProperty("webdriver.cache.dir",
+                System.getProperty("user.home") + File.separator + ".cache" + File.separator
+                        + "selenium-cucumber-java-steps");
+    }
+
+    public static int getWebDriverCacheTtlHours() {
+        return getIntProperty("webdriver.cache.ttl.hours", "24");
+    }
+
+    public static String getServiceScope() {
+        return properties.getProperty("webdriver.service.scope", "none").trim().toLowerCase();
+    }
+
+    public static boolean isParallelEnabled(String runner) {
+        return getBooleanProperty("parallel." + runner + ".enabled", "false");
+    }
+
+    public static int getParallelThreads(String runner) {
+        return getIntProperty("parallel." + runner + ".threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors()));
+    }
+
+    public static String getParallelExecutor(String runner) {
+        return properties.getProperty("parallel." + runner + ".executor", "platform").trim().toLowerCase();
+    }
+
+    public static List<String> getNetworkBlockUrls() {
+        return getListProperty("network.block.urls");
+    }
+
+    public static List<String> getNetworkBlockResourceTypes() {
+        return getListProperty("network.block.resource.types");
+    }
+
+    public static boolean isNetworkBlockMeasureBytes() {
+        return getBooleanProperty("network.block.measure.bytes", "false");
+    }
+
     public static String loadJsonFile(String fileName) {
         String directory = ConfigLoader.getProperty("json.file.directory", "src/test/resources/json/");
         if (!directory.endsWith("/")) {
@@ -121,4 +368,45 @@ public class ConfigLoader {
             throw new RuntimeException("Failed to reload config.properties", e);
         }
     }
-}
\ No newline at end of file
+
+    private static int getIntProperty(String key, String defaultValue) {
+        String value = properties.getProperty(key, defaultValue);
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid value for '" + key + "' in config.properties", e);
+        }
+    }
+
+    private static long getLongProperty(String key, String defaultValue) {
+        String value = properties.getProperty(key, defaultValue);
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid value for '" + key + "' in config.properties", e);
+        }
+    }
+
+    private static double getDoubleProperty(String key, String defaultValue) {
+        String value = properties.getProperty(key, defaultValue);
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid value for '" + key + "' in config.properties", e);
+        }
+    }
+
+    private static boolean getBooleanProperty(String key, String defaultValue) {
+        return Boolean.parseBoolean(properties.getProperty(key, defaultValue).trim());
+    }
+
+    private static List<String> getListProperty(String key) {
+        List<String> values = new ArrayList<>();
+        for (String value : properties.getProperty(key, "").split(",")) {
+            if (!value.trim().isEmpty()) {
+                values.add(value.trim());
+            }
+        }
+        return values;
+    }
+}
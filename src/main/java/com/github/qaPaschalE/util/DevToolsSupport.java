@@ -0,0 +1,110 @@
+package com.github.qaPaschalE.util;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Thin, version-independent access to the Chrome DevTools protocol. Commands and events are sent and
+ * received as plain maps, so the code does not depend on one of Selenium's generated devtools versions.
+ */
+final class DevToolsSupport {
+
+    private DevToolsSupport() {
+    }
+
+    /**
+     * @param driver The WebDriver session.
+     * @return True if the browser speaks the DevTools protocol.
+     */
+    static boolean isSupported(WebDriver driver) {
+        return driver instanceof HasDevTools && ((HasDevTools) driver).maybeGetDevTools().isPresent();
+    }
+
+    /**
+     * Returns a DevTools connection attached to the session's current window.
+     *
+     * @param driver The WebDriver session.
+     * @return The DevTools connection.
+     * @throws UnsupportedOperationException if the browser does not support DevTools.
+     */
+    static DevTools attach(WebDriver driver) {
+        Optional<DevTools> devTools = driver instanceof HasDevTools
+                ? ((HasDevTools) driver).maybeGetDevTools()
+                : Optional.empty();
+        if (!devTools.isPresent()) {
+            throw new UnsupportedOperationException("The current browser does not support the DevTools protocol.");
+        }
+        devTools.get().createSessionIfThereIsNotOne(driver.getWindowHandle());
+        return devTools.get();
+    }
+
+    /**
+     * Ends the session's DevTools connection: switches off the Network domain, removes every listener and
+     * disconnects, so a reused browser starts clean. The connection is shared by every component that uses
+     * DevTools, so this is only called once they have all stopped, when the session is released; components
+     * only switch off domains that no other component uses.
+     *
+     * @param driver The session being released.
+     */
+    static void release(WebDriver driver) {
+        if (!isSupported(driver)) {
+            return;
+        }
+        DevTools devTools = ((HasDevTools) driver).getDevTools();
+        if (devTools.getCdpSession() == null) {
+            return; // No component attached
+        }
+        try {
+            send(devTools, "Network.disable", new HashMap<>());
+        } finally {
+            devTools.clearListeners();
+            devTools.disconnectSession();
+        }
+    }
+
+    /**
+     * Sends a DevTools command.
+     *
+     * @param devTools The DevTools connection.
+     * @param method   The protocol method, e.g. "Network.enable".
+     * @param params   The command parameters.
+     * @return The command result.
+     */
+    static Map<String, Object> send(DevTools devTools, String method, Map<String, Object> params) {
+        return devTools.send(new Command<Map<String, Object>>(method, params, Json.MAP_TYPE));
+    }
+
+    /**
+     * Subscribes to a DevTools event.
+     *
+     * @param devTools The DevTools connection.
+     * @param method   The protocol event, e.g. "Network.requestWillBeSent".
+     * @param handler  Receives the event parameters.
+     */
+    static void on(DevTools devTools, String method, Consumer<Map<String, Object>> handler) {
+        devTools.addListener(new Event<Map<String, Object>>(method, input -> input.read(Json.MAP_TYPE)), handler);
+    }
+
+    /**
+     * Builds a parameter map from alternating keys and values.
+     *
+     * @param keysAndValues e.g. {@code "url", "about:blank", "browserContextId", id}
+     * @return The parameters.
+     */
+    static Map<String, Object> params(Object... keysAndValues) {
+        Map<String, Object> params = new HashMap<>();
+        for (int i = 0; i + 1 < keysAndValues.length; i += 2) {
+            params.put(String.valueOf(keysAndValues[i]), keysAndValues[i + 1]);
+        }
+        return params;
+    }
+}
@@ -0,0 +1,297 @@
+package com.github.qaPaschalE.util;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The state of every element matching a locator, read in a single {@code executeScript} call: visibility,
+ * rendered text, value, attributes and bounding box. Assertions read from the snapshot instead of calling
+ * {@code isDisplayed}, {@code getText} and {@code getDomAttribute} on each element, which costs one WebDriver
+ * round trip per call.
+ *
+ * <p>Every property read from a snapshot counts as one round trip saved. The count is kept per thread, and
+ * {@link #takeRoundTripsSaved()} returns and resets it so the hooks can report it per step.</p>
+ */
+public class DomSnapshot {
+    private static final ThreadLocal<int[]> roundTripsSaved = ThreadLocal.withInitial(() -> new int[1]);
+
+    // Shared with the observer waits in WaitEngine: resolve a CSS or XPath selector, and approximate
+    // WebElement.isDisplayed()
+    static final String FIND_FUNCTION =
+            "function (mode, selector) {"
+            + "  if (mode === 'css') {"
+            + "    return Array.prototype.slice.call(document.querySelectorAll(selector));"
+            + "  }"
+            + "  var result = document.evaluate(selector, document, null,"
+            + "      XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);"
+            + "  var found = [];"
+            + "  for (var i = 0; i < result.snapshotLength; i++) {"
+            + "    if (result.snapshotItem(i).nodeType === 1) { found.push(result.snapshotItem(i)); }"
+            + "  }"
+            + "  return found;"
+            + "}";
+    static final String IS_DISPLAYED_FUNCTION =
+            "function (el) {"
+            + "  var style = window.getComputedStyle(el);"
+            + "  var displayed = el.getClientRects().length > 0 && style.visibility !== 'hidden'"
+            + "      && style.visibility !== 'collapse' && parseFloat(style.opacity) !== 0;"
+            + "  return displayed && el.checkVisibility ? el.checkVisibility() : displayed;"
+            + "}";
+
+    private static final String SNAPSHOT_SCRIPT =
+            "var find = " + FIND_FUNCTION + ";"
+            + "var isDisplayed = " + IS_DISPLAYED_FUNCTION + ";"
+            + "var elements = arguments[1] === 'elements' ? arguments[0] : find(arguments[1], arguments[2]);"
+            + "return elements.map(function (el) {"
+            + "  var displayed = isDisplayed(el);"
+            + "  var attributes = {};"
+            + "  for (var j = 0; j < el.attributes.length; j++) {"
+            + "    attributes[el.attributes[j].name] = el.attributes[j].value;"
+            + "  }"
+            + "  var rect = el.getBoundingClientRect();"
+            + "  return {element: el, displayed: displayed, text: displayed ? (el.innerText || '').trim() : '',"
+            + "      value: 'value' in el ? String(el.value) : null, attributes: attributes,"
+            + "      rect: [rect.left + window.pageXOffset, rect.top + window.pageYOffset, rect.width, rect.height]};"
+            + "});";
+
+    private final List<ElementState> elements;
+
+    private DomSnapshot(List<ElementState> elements) {
+        this.elements = elements;
+    }
+
+    /**
+     * Snapshots every element matching the locator. CSS and XPath locators are resolved inside the script;
+     * other locator types are found first, which costs one extra round trip.
+     *
+     * @param driver  The WebDriver session.
+     * @param locator The element locator.
+     * @return The snapshot, empty if nothing matches.
+     */
+    public static DomSnapshot query(WebDriver driver, By locator) {
+        String[] target = scriptTarget(locator);
+        if (target != null) {
+            return run(driver, null, target[0], target[1]);
+        }
+        roundTripsSaved.get()[0]--;
+        return run(driver, driver.findElements(locator), "elements", null);
+    }
+
+    /**
+     * Splits a CSS or XPath locator into the mode and selector understood by {@link #FIND_FUNCTION}.
+     *
+     * @param locator The element locator.
+     * @return {@code {"css"|"xpath", selector}}, or null for other locator types.
+     */
+    static String[] scriptTarget(By locator) {
+        String description = locator.toString();
+        if (description.startsWith("By.cssSelector: ")) {
+            return new String[]{"css", description.substring("By.cssSelector: ".length())};
+        }
+        if (description.startsWith("By.xpath: ")) {
+            return new String[]{"xpath", description.substring("By.xpath: ".length())};
+        }
+        return null;
+    }
+
+    /**
+     * Waits until at least one element matches and snapshots the matches.
+     *
+     * @param driver  The WebDriver session.
+     * @param locator The element locator.
+     * @return The snapshot.
+     * @throws NoSuchElementException if no element appears within {@code wait.timeout.present}.
+     */
+    public static DomSnapshot awaitPresent(WebDriver driver, By locator) {
+        if (WaitEngine.observe(driver, locator, "present") != null) {
+            // The observer has seen the element or timed out; one snapshot reports the outcome
+            DomSnapshot snapshot = query(driver, locator);
+            if (snapshot.isEmpty()) {
+                throw new NoSuchElementException("Element not found within "
+                        + ConfigLoader.getWaitTimeout("present") + " s: " + locator);
+            }
+            return snapshot;
+        }
+        try {
+            return WaitEngine.until(driver, "present", "element " + locator, d -> {
+                DomSnapshot snapshot = query(d, locator);
+                return snapshot.isEmpty() ? null : snapshot;
+            });
+        } catch (TimeoutException e) {
+            throw new NoSuchElementException("Element not found within " + ConfigLoader.getWaitTimeout("present")
+                    + " s: " + locator, e);
+        }
+    }
+
+    /**
+     * Waits until a matching element is displayed and snapshots the matches. If elements match but none
+     * becomes visible in time, the last snapshot is returned so the caller can report it.
+     *
+     * @param driver  The WebDriver session.
+     * @param locator The element locator.
+     * @return The snapshot.
+     * @throws NoSuchElementException if no element matches within {@code wait.timeout.visible}.
+     */
+    public static DomSnapshot awaitVisible(WebDriver driver, By locator) {
+        if (WaitEngine.observe(driver, locator, "visible") != null) {
+            DomSnapshot snapshot = query(driver, locator);
+            if (snapshot.isEmpty()) {
+                throw new NoSuchElementException("Element not found within "
+                        + ConfigLoader.getWaitTimeout("visible") + " s: " + locator);
+            }
+            return snapshot;
+        }
+        DomSnapshot[] last = new DomSnapshot[1];
+        try {
+            return WaitEngine.until(driver, "visible", "visible element " + locator, d -> {
+                last[0] = query(d, locator);
+                return last[0].firstDisplayed() != null ? last[0] : null;
+            });
+        } catch (TimeoutException e) {
+            if (last[0] == null || last[0].isEmpty()) {
+                throw new NoSuchElementException("Element not found within " + ConfigLoader.getWaitTimeout("visible")
+                        + " s: " + locator, e);
+            }
+            return last[0];
+        }
+    }
+
+    /**
+     * Returns the round trips the current thread saved since the last call, and resets the count.
+     *
+     * @return The number of WebDriver calls avoided.
+     */
+    public static int takeRoundTripsSaved() {
+        int[] saved = roundTripsSaved.get();
+        int value = Math.max(saved[0], 0);
+        saved[0] = 0;
+        return value;
+    }
+
+    public boolean isEmpty() {
+        return elements.isEmpty();
+    }
+
+    public int size() {
+        return elements.size();
+    }
+
+    public List<ElementState> getElements() {
+        return Collections.unmodifiableList(elements);
+    }
+
+    /**
+     * @return The first matching element.
+     * @throws NoSuchElementException if the snapshot is empty.
+     */
+    public ElementState first() {
+        if (elements.isEmpty()) {
+            throw new NoSuchElementException("No element in snapshot");
+        }
+        return elements.get(0);
+    }
+
+    /**
+     * @return The first displayed element, or null if none is displayed.
+     */
+    public ElementState firstDisplayed() {
+        for (ElementState element : elements) {
+            if (element.isDisplayed()) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DomSnapshot run(WebDriver driver, List<WebElement> found, String mode, String selector) {
+        Object result = ((JavascriptExecutor) driver).executeScript(SNAPSHOT_SCRIPT,
+                found == null ? Collections.emptyList() : found, mode, selector);
+        List<ElementState> states = new ArrayList<>();
+        if (result instanceof List) {
+            for (Object item : (List<Object>) result) {
+                states.add(new ElementState((Map<String, Object>) item));
+            }
+        }
+        return new DomSnapshot(states);
+    }
+
+    /**
+     * One element as it was when the snapshot was taken.
+     */
+    public static final class ElementState {
+        private final WebElement element;
+        private final boolean displayed;
+        private final String text;
+        private final String value;
+        private final Map<String, String> attributes = new HashMap<>();
+        private final Rectangle rect;
+
+        @SuppressWarnings("unchecked")
+        private ElementState(Map<String, Object> state) {
+            element = (WebElement) state.get("element");
+            displayed = Boolean.TRUE.equals(state.get("displayed"));
+            text = (String) state.get("text");
+            value = (String) state.get("value");
+            ((Map<String, Object>) state.get("attributes")).forEach((name, attributeValue) ->
+                    attributes.put(name, String.valueOf(attributeValue)));
+            List<Number> box = (List<Number>) state.get("rect");
+            rect = new Rectangle(box.get(0).intValue(), box.get(1).intValue(), box.get(3).intValue(),
+                    box.get(2).intValue());
+        }
+
+        /**
+         * @return The live element, for interactions.
+         */
+        public WebElement getElement() {
+            return element;
+        }
+
+        public boolean isDisplayed() {
+            return read(displayed);
+        }
+
+        /**
+         * @return The rendered text, empty for hidden elements (like {@link WebElement#getText()}).
+         */
+        public String getText() {
+            return read(text);
+        }
+
+        /**
+         * @return The current value property, or null if the element has none.
+         */
+        public String getValue() {
+            return read(value);
+        }
+
+        /**
+         * @param name The attribute name.
+         * @return The attribute as written in the DOM, or null if absent (like {@link WebElement#getDomAttribute}).
+         */
+        public String getAttribute(String name) {
+            return read(attributes.get(name));
+        }
+
+        public Rectangle getRect() {
+            return read(rect);
+        }
+
+        private static <T> T read(T property) {
+            // Each property read here would otherwise have been its own WebDriver command
+            roundTripsSaved.get()[0]++;
+            return property;
+        }
+    }
+}
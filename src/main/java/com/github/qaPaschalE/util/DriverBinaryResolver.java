@@ -0,0 +1,228 @@
+package com.github.qaPaschalE.util;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves the WebDriver binary (chromedriver, geckodriver, ...) once per JVM. Resolutions are kept in
+ * memory and in a small on-disk cache so later runs skip WebDriverManager's version detection, and
+ * {@code webdriver.offline=true} uses a pinned local binary without any network access.
+ */
+public class DriverBinaryResolver {
+    private static final Logger logger = LoggerFactory.getLogger(DriverBinaryResolver.class);
+    private static final Map<String, Resolution> resolved = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the driver binary for the given browser, resolving it on the first call only.
+     *
+     * @param browserType The browser type, e.g. "chrome" or "firefox".
+     * @return The resolved driver.
+     */
+    public static Resolution resolve(String browserType) {
+        Resolution resolution = resolved.get(browserType);
+        if (resolution != null) {
+            return resolution;
+        }
+        synchronized (DriverBinaryResolver.class) {
+            resolution = resolved.get(browserType);
+            if (resolution == null) {
+                resolution = doResolve(browserType);
+                resolved.put(browserType, resolution);
+                logger.info("Resolved {} driver from {} in {} ms: {} (driver {}, browser {})", browserType,
+                        resolution.getSource(), resolution.getResolutionMillis(), resolution.getDriverPath(),
+                        resolution.getDriverVersion(), resolution.getBrowserVersion());
+            }
+            return resolution;
+        }
+    }
+
+    /**
+     * Forgets a resolution, both in memory and on disk, e.g. after the browser was upgraded and the
+     * cached driver no longer starts a session.
+     *
+     * @param browserType The browser type.
+     */
+    public static synchronized void invalidate(String browserType) {
+        resolved.remove(browserType);
+        try {
+            Files.deleteIfExists(cacheFile(browserType));
+        } catch (IOException e) {
+            logger.warn("Failed to delete driver cache for {}: {}", browserType, e.getMessage());
+        }
+    }
+
+    /**
+     * Records the browser version reported by a started session so it is available from the cache.
+     *
+     * @param browserType    The browser type.
+     * @param browserVersion The version reported in the session capabilities.
+     */
+    public static synchronized void recordBrowserVersion(String browserType, String browserVersion) {
+        Resolution resolution = resolved.get(browserType);
+        if (resolution == null || browserVersion == null || browserVersion.equals(resolution.getBrowserVersion())) {
+            return;
+        }
+        Resolution updated = new Resolution(browserType, resolution.getDriverPath(), resolution.getDriverVersion(),
+                browserVersion, resolution.getSource(), resolution.getResolutionMillis());
+        resolved.put(browserType, updated);
+        if (!"offline".equals(updated.getSource())) {
+            writeCache(updated);
+        }
+    }
+
+    private static Resolution doResolve(String browserType) {
+        long start = System.nanoTime();
+        if (ConfigLoader.isWebDriverOffline()) {
+            String driverPath = ConfigLoader.getWebDriverBinaryPath();
+            if (driverPath == null || !new File(driverPath).canExecute()) {
+                throw new IllegalStateException("webdriver.offline is enabled but 'webdriver.driver.path' does not "
+                        + "point to an executable driver binary: " + driverPath);
+            }
+            exportDriverPath(browserType, driverPath);
+            return new Resolution(browserType, driverPath, "pinned", "unknown", "offline", elapsedMillis(start));
+        }
+
+        Resolution cached = readCache(browserType);
+        if (cached != null) {
+            exportDriverPath(browserType, cached.getDriverPath());
+            return new Resolution(browserType, cached.getDriverPath(), cached.getDriverVersion(),
+                    cached.getBrowserVersion(), "disk-cache", elapsedMillis(start));
+        }
+
+        WebDriverManager manager = WebDriverManager.getInstance(browserType);
+        manager.setup();
+        Resolution resolution = new Resolution(browserType, manager.getDownloadedDriverPath(),
+                manager.getDownloadedDriverVersion(), "unknown", "webdrivermanager", elapsedMillis(start));
+        writeCache(resolution);
+        return resolution;
+    }
+
+    private static Resolution readCache(String browserType) {
+        Path file = cacheFile(browserType);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        long ageMillis = System.currentTimeMillis() - file.toFile().lastModified();
+        if (ageMillis > TimeUnit.HOURS.toMillis(ConfigLoader.getWebDriverCacheTtlHours())) {
+            logger.debug("Driver cache for {} expired", browserType);
+            return null;
+        }
+        Properties cache = new Properties();
+        try (InputStream input = Files.newInputStream(file)) {
+            cache.load(input);
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable driver cache {}: {}", file, e.getMessage());
+            return null;
+        }
+        String driverPath = cache.getProperty("driver.path");
+        if (driverPath == null || !new File(driverPath).canExecute()) {
+            return null;
+        }
+        return new Resolution(browserType, driverPath, cache.getProperty("driver.version", "unknown"),
+                cache.getProperty("browser.version", "unknown"), "disk-cache", 0);
+    }
+
+    private static void writeCache(Resolution resolution) {
+        if (resolution.getDriverPath() == null) {
+            return;
+        }
+        Properties cache = new Properties();
+        cache.setProperty("driver.path", resolution.getDriverPath());
+        cache.setProperty("driver.version", String.valueOf(resolution.getDriverVersion()));
+        cache.setProperty("browser.version", String.valueOf(resolution.getBrowserVersion()));
+        Path file = cacheFile(resolution.getBrowserType());
+        try {
+            Files.createDirectories(file.getParent());
+            try (OutputStream output = Files.newOutputStream(file)) {
+                cache.store(output, "Resolved WebDriver binary");
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to write driver cache {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static void exportDriverPath(String browserType, String driverPath) {
+        String property;
+        switch (browserType) {
+            case "firefox":
+                property = "webdriver.gecko.driver";
+                break;
+            case "edge":
+                property = "webdriver.edge.driver";
+                break;
+            default:
+                property = "webdriver." + browserType + ".driver";
+        }
+        System.setProperty(property, driverPath);
+    }
+
+    private static Path cacheFile(String browserType) {
+        return Paths.get(ConfigLoader.getWebDriverCacheDir(), browserType + "-driver.properties");
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * A resolved driver binary and where it came from.
+     */
+    public static final class Resolution {
+        private final String browserType;
+        private final String driverPath;
+        private final String driverVersion;
+        private final String browserVersion;
+        private final String source;
+        private final long resolutionMillis;
+
+        Resolution(String browserType, String driverPath, String driverVersion, String browserVersion,
+                   String source, long resolutionMillis) {
+            this.browserType = browserType;
+            this.driverPath = driverPath;
+            this.driverVersion = driverVersion;
+            this.browserVersion = browserVersion;
+            this.source = source;
+            this.resolutionMillis = resolutionMillis;
+        }
+
+        public String getBrowserType() {
+            return browserType;
+        }
+
+        public String getDriverPath() {
+            return driverPath;
+        }
+
+        public String getDriverVersion() {
+            return driverVersion;
+        }
+
+        public String getBrowserVersion() {
+            return browserVersion;
+        }
+
+        /**
+         * @return "offline", "disk-cache" or "webdrivermanager".
+         */
+        public String getSource() {
+            return source;
+        }
+
+        public long getResolutionMillis() {
+            return resolutionMillis;
+        }
+    }
+}
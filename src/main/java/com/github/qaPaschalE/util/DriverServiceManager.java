@@ -0,0 +1,157 @@
+package com.github.qaPaschalE.util;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shares chromedriver server processes between sessions. With {@code webdriver.service.scope=jvm} one
+ * chromedriver serves every session; with {@code thread} each worker thread gets its own. The service is
+ * health-checked before each new session and restarted if it has crashed.
+ *
+ * <p>Services live until JVM exit. A virtual thread runs a single scenario and is never reused, so a
+ * per-thread service would be left running after every scenario; sessions opened on virtual threads use the
+ * JVM-wide service even with {@code thread} scope.</p>
+ */
+class DriverServiceManager {
+    private static final Logger logger = LoggerFactory.getLogger(DriverServiceManager.class);
+    private static final int HEALTH_CHECK_TIMEOUT_MILLIS = 2000;
+
+    private static final ThreadLocal<ChromeDriverService> threadService = new ThreadLocal<>();
+    private static final List<ChromeDriverService> startedServices = new CopyOnWriteArrayList<>();
+    private static final AtomicInteger restarts = new AtomicInteger();
+    private static final Method IS_VIRTUAL = isVirtualMethod();
+    private static final AtomicBoolean virtualThreadWarned = new AtomicBoolean();
+    private static ChromeDriverService jvmService;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(DriverServiceManager::stopAll, "chromedriver-service-stop"));
+    }
+
+    /**
+     * @return True if sessions should be opened through a shared chromedriver service.
+     */
+    static boolean isShared() {
+        String scope = ConfigLoader.getServiceScope();
+        return "jvm".equals(scope) || "thread".equals(scope);
+    }
+
+    /**
+     * Opens a new Chrome session through the shared service for the configured scope.
+     *
+     * @param options The browser options for the session.
+     * @return The new session.
+     */
+    static WebDriver newDriver(ChromeOptions options) {
+        return new SharedServiceChromeDriver(getService().getUrl(), options);
+    }
+
+    private static ChromeDriverService getService() {
+        boolean perThread = "thread".equals(ConfigLoader.getServiceScope());
+        if (perThread && isVirtualThread()) {
+            perThread = false;
+            if (virtualThreadWarned.compareAndSet(false, true)) {
+                logger.warn("webdriver.service.scope=thread is not supported on virtual threads, which would each "
+                        + "leave a chromedriver running; using one service for the JVM instead");
+            }
+        }
+        if (perThread) {
+            ChromeDriverService service = ensureHealthy(threadService.get());
+            threadService.set(service);
+            return service;
+        }
+        synchronized (DriverServiceManager.class) {
+            jvmService = ensureHealthy(jvmService);
+            return jvmService;
+        }
+    }
+
+    private static ChromeDriverService ensureHealthy(ChromeDriverService service) {
+        if (service != null) {
+            if (isHealthy(service)) {
+                return service;
+            }
+            logger.warn("chromedriver service at {} is not responding, restarting it (restart #{})",
+                    service.getUrl(), restarts.incrementAndGet());
+            stopQuietly(service);
+            startedServices.remove(service);
+        }
+        return startService();
+    }
+
+    private static ChromeDriverService startService() {
+        long start = System.nanoTime();
+        ChromeDriverService service = ChromeDriverService.createDefaultService();
+        try {
+            service.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to start chromedriver service", e);
+        }
+        startedServices.add(service);
+        logger.info("Started shared chromedriver service at {} in {} ms", service.getUrl(),
+                (System.nanoTime() - start) / 1_000_000);
+        return service;
+    }
+
+    private static boolean isHealthy(ChromeDriverService service) {
+        if (!service.isRunning()) {
+            return false;
+        }
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(service.getUrl(), "status").openConnection();
+            connection.setConnectTimeout(HEALTH_CHECK_TIMEOUT_MILLIS);
+            connection.setReadTimeout(HEALTH_CHECK_TIMEOUT_MILLIS);
+            return connection.getResponseCode() == HttpURLConnection.HTTP_OK;
+        } catch (IOException e) {
+            return false;
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    private static boolean isVirtualThread() {
+        try {
+            return IS_VIRTUAL != null && (Boolean) IS_VIRTUAL.invoke(Thread.currentThread());
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+
+    private static Method isVirtualMethod() {
+        try {
+            // Thread.isVirtual() exists from Java 21 on
+            return Thread.class.getMethod("isVirtual");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static void stopAll() {
+        for (ChromeDriverService service : startedServices) {
+            stopQuietly(service);
+        }
+        startedServices.clear();
+    }
+
+    private static void stopQuietly(ChromeDriverService service) {
+        try {
+            service.stop();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to stop chromedriver service: {}", e.getMessage());
+        }
+    }
+}
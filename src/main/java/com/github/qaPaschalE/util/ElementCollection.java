@@ -0,0 +1,164 @@
+package com.github.qaPaschalE.util;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+
+/**
+ * The elements matching a locator, fetched lazily. Only the locator is stored; {@link #size()} and
+ * {@link #get(int)} each cost one script call that counts the matches or returns just the requested one, so
+ * a step that needs one row of a table with thousands never transfers references to all of them. CSS and
+ * XPath locators are evaluated in the page, and {@link TextIndex} locators in the page's text index; other
+ * locators fall back to {@code findElements}.
+ *
+ * <p>Like a list obtained from {@code findElements}, indexes are zero-based. Unlike such a list, every call
+ * sees the current DOM.</p>
+ */
+public class ElementCollection {
+
+    private static final String QUERY_SCRIPT =
+            "var mode = arguments[0], selector = arguments[1], index = arguments[2];"
+            + "var root = arguments[3] || document;"
+            + "var all;"
+            + "if (mode === 'css') {"
+            + "  all = root.querySelectorAll(selector);"
+            + "} else {"
+            + "  var result = document.evaluate(selector, root, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);"
+            + "  all = [];"
+            + "  for (var i = 0; i < result.snapshotLength; i++) {"
+            + "    if (result.snapshotItem(i).nodeType === 1) { all.push(result.snapshotItem(i)); }"
+            + "  }"
+            + "}"
+            + "if (index === null) { return all.length; }"
+            + "if (index < 0) { index = all.length + index; }"
+            + "return index >= 0 && index < all.length ? all[index] : null;";
+
+    private final WebDriver driver;
+    private final WebElement root;
+    private final By locator;
+    private final String[] target;
+
+    private ElementCollection(WebDriver driver, WebElement root, By locator) {
+        this.driver = driver;
+        this.root = root;
+        this.locator = locator;
+        this.target = DomSnapshot.scriptTarget(locator);
+    }
+
+    /**
+     * @param driver  The WebDriver session.
+     * @param locator The element locator.
+     * @return The elements matching the locator in the current page.
+     */
+    public static ElementCollection of(WebDriver driver, By locator) {
+        return new ElementCollection(driver, null, locator);
+    }
+
+    /**
+     * @param driver  The WebDriver session.
+     * @param parent  The element to search below.
+     * @param locator The element locator, relative to {@code parent}.
+     * @return The elements matching the locator below {@code parent}.
+     */
+    public static ElementCollection within(WebDriver driver, WebElement parent, By locator) {
+        return new ElementCollection(driver, parent, locator);
+    }
+
+    /**
+     * Waits until at least one element matches.
+     *
+     * @param driver  The WebDriver session.
+     * @param locator The element locator.
+     * @return The collection, which is empty if nothing matched within {@code wait.timeout.present}.
+     */
+    public static ElementCollection await(WebDriver driver, By locator) {
+        ElementCollection collection = of(driver, locator);
+        if (WaitEngine.observe(driver, locator, "present") == null) {
+            try {
+                WaitEngine.until(driver, "present", "elements " + locator, d -> !collection.isEmpty());
+            } catch (TimeoutException e) {
+                // Callers assert on isEmpty() with their own message
+            }
+        }
+        return collection;
+    }
+
+    /**
+     * @return The number of matching elements.
+     */
+    public int size() {
+        if (locator instanceof TextIndex.ByIndexedText) {
+            return ((TextIndex.ByIndexedText) locator).count(context());
+        }
+        if (target == null) {
+            return findAll().size();
+        }
+        return ((Number) query(null)).intValue();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @param index A zero-based index.
+     * @return The element at that index.
+     * @throws IndexOutOfBoundsException if the index is negative or no element has that index.
+     */
+    public WebElement get(int index) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Negative index " + index + " for " + locator);
+        }
+        return at(index);
+    }
+
+    public WebElement first() {
+        return get(0);
+    }
+
+    public WebElement last() {
+        return at(-1);
+    }
+
+    @Override
+    public String toString() {
+        return "ElementCollection(" + locator + ")";
+    }
+
+    /**
+     * @param index A zero-based index; negative indexes count from the end.
+     */
+    private WebElement at(int index) {
+        WebElement element;
+        if (locator instanceof TextIndex.ByIndexedText) {
+            element = ((TextIndex.ByIndexedText) locator).element(context(), index);
+        } else if (target == null) {
+            List<WebElement> all = findAll();
+            int resolved = index < 0 ? all.size() + index : index;
+            element = resolved >= 0 && resolved < all.size() ? all.get(resolved) : null;
+        } else {
+            element = (WebElement) query(index);
+        }
+        if (element == null) {
+            throw new IndexOutOfBoundsException("No element at index " + index + " for " + locator);
+        }
+        return element;
+    }
+
+    private Object query(Integer index) {
+        return ((JavascriptExecutor) driver).executeScript(QUERY_SCRIPT, target[0], target[1], index, root);
+    }
+
+    private List<WebElement> findAll() {
+        return context().findElements(locator);
+    }
+
+    private SearchContext context() {
+        return root != null ? root : driver;
+    }
+}
@@ -0,0 +1,182 @@
+package com.github.qaPaschalE.util;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Fills many form fields at once. Consecutive scripted fields are set in a single {@code executeScript} call;
+ * fields marked for typing are cleared and typed into with {@code sendKeys}, in table order.
+ *
+ * <p>Text fields are set through the native {@code value} setter, so frameworks that track the property
+ * (React, Vue) see the change, followed by {@code input} and {@code change} events. Selects take an option
+ * value or its visible text. Checkboxes and radios take {@code true}/{@code false} (or yes/no, on/off,
+ * checked/unchecked); a radio also takes the value of another radio in its group. They are toggled with a
+ * click, which fires the events the browser would. Field selectors are CSS, or XPath relative to the form.</p>
+ *
+ * <p>The time spent on each field is kept per thread; {@link #takeReports()} returns and clears it so the hooks
+ * can log it per scenario.</p>
+ */
+public class FormFiller {
+    private static final ThreadLocal<List<String>> reports = ThreadLocal.withInitial(ArrayList::new);
+
+    private static final String FILL_SCRIPT =
+            "var form = arguments[0], fields = arguments[1], results = [];"
+            + "var toggles = /^(true|false|yes|no|on|off|checked|unchecked|1|0)$/i;"
+            + "var truthy = function (value) { return /^(true|yes|on|checked|1)$/i.test(value); };"
+            + "var fire = function (el, type) { el.dispatchEvent(new Event(type, {bubbles: true})); };"
+            + "for (var f = 0; f < fields.length; f++) {"
+            + "  var mode = fields[f][0], selector = fields[f][1], value = fields[f][2];"
+            + "  var start = performance.now(), error = null;"
+            + "  var el = mode === 'css' ? form.querySelector(selector) : document.evaluate(selector, form, null,"
+            + "      XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+            + "  if (!el) {"
+            + "    results.push({millis: 0, error: 'not found'});"
+            + "    continue;"
+            + "  }"
+            + "  if (el.type === 'checkbox' || el.type === 'radio') {"
+            + "    var target = el, wanted = truthy(value);"
+            + "    if (el.type === 'radio' && !toggles.test(value)) {"
+            + "      target = null;"
+            + "      wanted = true;"
+            + "      var group = form.querySelectorAll('input[type=\"radio\"]');"
+            + "      for (var g = 0; g < group.length; g++) {"
+            + "        if (group[g].name === el.name && group[g].value === value) { target = group[g]; }"
+            + "      }"
+            + "      if (!target) { error = 'no radio with value \"' + value + '\"'; }"
+            + "    }"
+            + "    if (target && target.checked !== wanted) { target.click(); }"
+            + "  } else {"
+            + "    if (el.focus) { el.focus(); }"
+            + "    if (el.tagName === 'SELECT') {"
+            + "      var option = null;"
+            + "      for (var o = 0; o < el.options.length && !option; o++) {"
+            + "        if (el.options[o].value === value || el.options[o].text.trim() === value) { option = el.options[o]; }"
+            + "      }"
+            + "      if (option) { option.selected = true; } else { error = 'no option \"' + value + '\"'; }"
+            + "    } else if (el.isContentEditable) {"
+            + "      el.textContent = value;"
+            + "    } else {"
+            + "      var proto = el instanceof HTMLTextAreaElement ? HTMLTextAreaElement.prototype"
+            + "          : HTMLInputElement.prototype;"
+            + "      Object.getOwnPropertyDescriptor(proto, 'value').set.call(el, value);"
+            + "    }"
+            + "    if (!error) {"
+            + "      fire(el, 'input');"
+            + "      fire(el, 'change');"
+            + "    }"
+            + "    if (el.blur) { el.blur(); }"
+            + "  }"
+            + "  results.push({millis: performance.now() - start, error: error});"
+            + "}"
+            + "return results;";
+
+    private FormFiller() {
+    }
+
+    /**
+     * Fills the fields below a form element.
+     *
+     * @param driver The WebDriver session.
+     * @param form   The form, or any element containing the fields.
+     * @param fields The fields, in the order they are filled.
+     * @throws NoSuchElementException if a field, select option or radio value does not exist.
+     */
+    public static void fill(WebDriver driver, WebElement form, List<Field> fields) {
+        long start = System.nanoTime();
+        List<String> timings = new ArrayList<>();
+        int scriptCalls = 0;
+        List<Field> batch = new ArrayList<>();
+        for (Field field : fields) {
+            if (!field.typed) {
+                batch.add(field);
+                continue;
+            }
+            if (!batch.isEmpty()) {
+                runScript(driver, form, batch, timings);
+                scriptCalls++;
+                batch.clear();
+            }
+            long typeStart = System.nanoTime();
+            WebElement element = form.findElement(field.locator);
+            element.clear();
+            element.sendKeys(field.value);
+            timings.add(field.selector + " " + formatMillis((System.nanoTime() - typeStart) / 1e6) + " typed");
+        }
+        if (!batch.isEmpty()) {
+            runScript(driver, form, batch, timings);
+            scriptCalls++;
+        }
+        reports.get().add(fields.size() + " fields in " + formatMillis((System.nanoTime() - start) / 1e6) + ", "
+                + scriptCalls + " script call" + (scriptCalls == 1 ? "" : "s") + " (" + String.join(", ", timings)
+                + ")");
+    }
+
+    /**
+     * Returns the form fills of the current thread since the last call, and clears them.
+     *
+     * @return One line per form fill with the time spent on each field.
+     */
+    public static List<String> takeReports() {
+        List<String> taken = new ArrayList<>(reports.get());
+        reports.get().clear();
+        return taken;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void runScript(WebDriver driver, WebElement form, List<Field> batch, List<String> timings) {
+        List<List<String>> arguments = new ArrayList<>();
+        for (Field field : batch) {
+            String[] target = DomSnapshot.scriptTarget(field.locator);
+            if (target == null) {
+                throw new IllegalArgumentException("Form fields need a CSS or XPath selector: " + field.selector);
+            }
+            arguments.add(Arrays.asList(target[0], target[1], field.value));
+        }
+        List<Map<String, Object>> results = (List<Map<String, Object>>) ((JavascriptExecutor) driver)
+                .executeScript(FILL_SCRIPT, form, arguments);
+        for (int i = 0; i < batch.size(); i++) {
+            Object error = results.get(i).get("error");
+            if (error != null) {
+                throw new NoSuchElementException("Cannot fill form field " + batch.get(i).selector + ": " + error);
+            }
+            timings.add(batch.get(i).selector + " "
+                    + formatMillis(((Number) results.get(i).get("millis")).doubleValue()));
+        }
+    }
+
+    private static String formatMillis(double millis) {
+        return String.format(Locale.ROOT, millis < 10 ? "%.1f ms" : "%.0f ms", millis);
+    }
+
+    /**
+     * One field to fill.
+     */
+    public static final class Field {
+        private final String selector;
+        private final By locator;
+        private final String value;
+        private final boolean typed;
+
+        /**
+         * @param selector The selector as written in the step, for reporting.
+         * @param locator  The field locator, relative to the form.
+         * @param value    The value to set; null sets an empty value.
+         * @param typed    True to type the value with real keystrokes instead of setting it.
+         */
+        public Field(String selector, By locator, String value, boolean typed) {
+            this.selector = selector;
+            this.locator = locator;
+            this.value = value == null ? "" : value;
+            this.typed = typed;
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.github.qaPaschalE.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records the network traffic of a session as a HAR file while the scenario runs (Chromium only, through
+ * DevTools network events). Enable it with {@code har.enabled=true}.
+ *
+ * <p>Entries are written to {@code har.dir} as each request completes, by a background writer, so the
+ * DevTools event thread never waits for the disk and the file is complete up to the last finished request.
+ * Memory stays bounded: at most {@code har.buffer.entries} requests are tracked in flight and queued for
+ * writing, and requests beyond that are dropped and counted in the HAR comment. Response bodies up to
+ * {@code har.body.max.bytes} are included (0, the default, records none).</p>
+ *
+ * <p>The hooks call {@link #finish(WebDriver)} at the end of a scenario to store the file with the failure
+ * artifacts when it failed or delete it when it passed.</p>
+ */
+public class HarRecorder {
+    private static final Logger logger = LoggerFactory.getLogger(HarRecorder.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final Map<WebDriver, HarRecorder> recorders = new ConcurrentHashMap<>();
+    private static final long FINISH_TIMEOUT_SECONDS = 10;
+
+    private final DevTools devTools;
+    private final File file;
+    private final Writer writer;
+    private final int bufferEntries;
+    private final long bodyMaxBytes;
+    private final Map<String, Map<String, Object>> inFlight = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor writerThread;
+    private final AtomicInteger dropped = new AtomicInteger();
+    private int written;
+    private volatile boolean closed;
+
+    private HarRecorder(WebDriver driver) throws IOException {
+        bufferEntries = ConfigLoader.getHarBufferEntries();
+        bodyMaxBytes = ConfigLoader.getHarBodyMaxBytes();
+        File dir = new File(ConfigLoader.getHarDir());
+        Files.createDirectories(dir.toPath());
+        file = new File(dir, "session-" + sessionId(driver) + "-" + System.currentTimeMillis() + ".har");
+        writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file.toPath()),
+                StandardCharsets.UTF_8));
+        writer.write("{\"log\": {\"version\": \"1.2\", \"creator\": {\"name\": \"selenium-cucumber-java-steps\", "
+                + "\"version\": \"1\"}, \"pages\": [], \"entries\": [\n");
+        writerThread = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(bufferEntries), runnable -> {
+                    Thread thread = new Thread(runnable, "har-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                }, (task, executor) -> dropped.incrementAndGet());
+
+        devTools = DevToolsSupport.attach(driver);
+        DevToolsSupport.on(devTools, "Network.requestWillBeSent", this::onRequest);
+        DevToolsSupport.on(devTools, "Network.responseReceived", this::onResponse);
+        DevToolsSupport.on(devTools, "Network.loadingFinished", this::onFinished);
+        DevToolsSupport.on(devTools, "Network.loadingFailed", this::onFailed);
+        DevToolsSupport.send(devTools, "Network.enable", new HashMap<>());
+    }
+
+    /**
+     * Starts recording a session if {@code har.enabled=true} and the browser supports DevTools.
+     *
+     * @param driver The session a scenario just got.
+     */
+    static void start(WebDriver driver) {
+        if (!ConfigLoader.isHarEnabled() || !DevToolsSupport.isSupported(driver)) {
+            return;
+        }
+        try {
+            recorders.put(driver, new HarRecorder(driver));
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to start HAR recording: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Stops recording and completes the HAR file.
+     *
+     * @param driver The session.
+     * @return The HAR file, or null if the session was not recorded.
+     */
+    public static File finish(WebDriver driver) {
+        HarRecorder recorder = recorders.remove(driver);
+        return recorder == null ? null : recorder.close();
+    }
+
+    /**
+     * Completes the recording of a session being released, if the hooks have not already.
+     *
+     * @param driver The session.
+     */
+    static void stop(WebDriver driver) {
+        finish(driver);
+    }
+
+    private void onRequest(Map<String, Object> event) {
+        if (closed) {
+            return;
+        }
+        String id = String.valueOf(event.get("requestId"));
+        Map<String, Object> redirected = inFlight.remove(id);
+        if (redirected != null && event.get("redirectResponse") != null) {
+            // A redirect reuses the request id: the previous hop ends here
+            applyResponse(redirected, asMap(event.get("redirectResponse")));
+            complete(redirected, event, null, -1);
+        }
+        if (inFlight.size() >= bufferEntries) {
+            dropped.incrementAndGet();
+            return;
+        }
+        Map<String, Object> request = asMap(event.get("request"));
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("_requestId", id);
+        entry.put("_start", event.get("timestamp"));
+        entry.put("startedDateTime", Instant.ofEpochMilli(
+                (long) (((Number) event.get("wallTime")).doubleValue() * 1000)).toString());
+        entry.put("time", 0);
+        Map<String, Object> harRequest = new LinkedHashMap<>();
+        harRequest.put("method", request.get("method"));
+        harRequest.put("url", request.get("url"));
+        harRequest.put("httpVersion", "");
+        harRequest.put("cookies", Collections.emptyList());
+        harRequest.put("headers", headers(request.get("headers")));
+        harRequest.put("queryString", Collections.emptyList());
+        Object postData = request.get("postData");
+        if (postData != null) {
+            Map<String, Object> post = new LinkedHashMap<>();
+            post.put("mimeType", headerValue(request.get("headers"), "Content-Type"));
+            post.put("text", postData);
+            harRequest.put("postData", post);
+        }
+        harRequest.put("headersSize", -1);
+        harRequest.put("bodySize", postData == null ? 0 : String.valueOf(postData).length());
+        entry.put("request", harRequest);
+        entry.put("_resourceType", event.get("type"));
+        inFlight.put(id, entry);
+    }
+
+    private void onResponse(Map<String, Object> event) {
+        Map<String, Object> entry = inFlight.get(String.valueOf(event.get("requestId")));
+        if (entry != null) {
+            applyResponse(entry, asMap(event.get("response")));
+        }
+    }
+
+    private void onFinished(Map<String, Object> event) {
+        Map<String, Object> entry = inFlight.remove(String.valueOf(event.get("requestId")));
+        if (entry != null) {
+            complete(entry, event, null, ((Number) event.get("encodedDataLength")).longValue());
+        }
+    }
+
+    private void onFailed(Map<String, Object> event) {
+        Map<String, Object> entry = inFlight.remove(String.valueOf(event.get("requestId")));
+        if (entry != null) {
+            complete(entry, event, String.valueOf(event.get("errorText")), -1);
+        }
+    }
+
+    private void applyResponse(Map<String, Object> entry, Map<String, Object> response) {
+        Map<String, Object> harResponse = new LinkedHashMap<>();
+        harResponse.put("status", response.get("status"));
+        harResponse.put("statusText", response.get("statusText"));
+        harResponse.put("httpVersion", response.get("protocol") == null ? "" : response.get("protocol"));
+        harResponse.put("cookies", Collections.emptyList());
+        harResponse.put("headers", headers(response.get("headers")));
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put("size", -1);
+        content.put("mimeType", response.get("mimeType") == null ? "" : response.get("mimeType"));
+        harResponse.put("content", content);
+        harResponse.put("redirectURL", headerValue(response.get("headers"), "Location"));
+        harResponse.put("headersSize", -1);
+        harResponse.put("bodySize", -1);
+        entry.put("response", harResponse);
+        entry.put("_timing", response.get("timing"));
+    }
+
+    private void complete(Map<String, Object> entry, Map<String, Object> event, String error, long encodedLength) {
+        double time = (((Number) event.get("timestamp")).doubleValue()
+                - ((Number) entry.remove("_start")).doubleValue()) * 1000;
+        entry.put("time", Math.max(0, time));
+        if (!entry.containsKey("response")) {
+            applyResponse(entry, new HashMap<>());
+            asMap(entry.get("response")).put("status", 0);
+            asMap(entry.get("response")).put("statusText", "");
+        }
+        if (error != null) {
+            entry.put("_error", error);
+        }
+        if (encodedLength >= 0) {
+            asMap(entry.get("response")).put("bodySize", encodedLength);
+        }
+        entry.put("cache", Collections.emptyMap());
+        entry.put("timings", timings(asMap(entry.remove("_timing")), time));
+        String id = (String) entry.remove("_requestId");
+        // The encoded length is only a first filter: cache hits, 304s and service worker responses report 0, and
+        // compressed bodies grow when decoded, so write() checks the decoded size again
+        boolean withBody = bodyMaxBytes > 0 && error == null && encodedLength >= 0 && encodedLength <= bodyMaxBytes;
+        // Serialized on the writer thread: fetching a body waits for a DevTools reply, which would deadlock
+        // the event thread
+        writerThread.execute(() -> write(entry, withBody ? id : null));
+    }
+
+    private void write(Map<String, Object> entry, String bodyRequestId) {
+        if (bodyRequestId != null) {
+            try {
+                Map<String, Object> body = DevToolsSupport.send(devTools, "Network.getResponseBody",
+                        DevToolsSupport.params("requestId", bodyRequestId));
+                String text = (String) body.get("body");
+                boolean base64 = Boolean.TRUE.equals(body.get("base64Encoded"));
+                if (text != null && decodedLength(text, base64) <= bodyMaxBytes) {
+                    Map<String, Object> content = asMap(asMap(entry.get("response")).get("content"));
+                    content.put("text", text);
+                    if (base64) {
+                        content.put("encoding", "base64");
+                    }
+                }
+            } catch (RuntimeException e) {
+                // The body is gone, e.g. after a navigation; the entry is kept without it
+            }
+        }
+        try {
+            writer.write((written++ == 0 ? "" : ",\n") + mapper.writeValueAsString(entry));
+        } catch (IOException e) {
+            logger.warn("Failed to write HAR entry to {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static long decodedLength(String text, boolean base64) {
+        if (!base64) {
+            return text.getBytes(StandardCharsets.UTF_8).length;
+        }
+        int padding = text.endsWith("==") ? 2 : text.endsWith("=") ? 1 : 0;
+        return (long) text.length() / 4 * 3 - padding;
+    }
+
+    private File close() {
+        // Network events stay enabled for the other DevTools users until the session is released
+        closed = true;
+        writerThread.shutdown();
+        try {
+            if (!writerThread.awaitTermination(FINISH_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                writerThread.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int lost = dropped.get() + inFlight.size();
+        try {
+            writer.write("\n], \"comment\": \"" + written + " entries"
+                    + (lost > 0 ? ", " + lost + " dropped or unfinished" : "") + "\"}}\n");
+            writer.close();
+        } catch (IOException e) {
+            logger.warn("Failed to complete HAR file {}: {}", file, e.getMessage());
+        }
+        return file;
+    }
+
+    private static Map<String, Object> timings(Map<String, Object> timing, double total) {
+        Map<String, Object> timings = new LinkedHashMap<>();
+        if (timing == null) {
+            timings.put("send", 0);
+            timings.put("wait", total);
+            timings.put("receive", 0);
+            return timings;
+        }
+        double headersEnd = number(timing, "receiveHeadersEnd");
+        double sendEnd = number(timing, "sendEnd");
+        timings.put("blocked", Math.max(-1, number(timing, "dnsStart")));
+        timings.put("dns", span(timing, "dnsStart", "dnsEnd"));
+        timings.put("connect", span(timing, "connectStart", "connectEnd"));
+        timings.put("ssl", span(timing, "sslStart", "sslEnd"));
+        timings.put("send", Math.max(0, sendEnd - number(timing, "sendStart")));
+        timings.put("wait", Math.max(0, headersEnd - sendEnd));
+        timings.put("receive", Math.max(0, total - headersEnd));
+        return timings;
+    }
+
+    private static double span(Map<String, Object> timing, String start, String end) {
+        double startValue = number(timing, start);
+        return startValue < 0 ? -1 : number(timing, end) - startValue;
+    }
+
+    private static double number(Map<String, Object> timing, String key) {
+        Object value = timing.get(key);
+        return value instanceof Number ? ((Number) value).doubleValue() : -1;
+    }
+
+    private static List<Map<String, Object>> headers(Object headers) {
+        List<Map<String, Object>> list = new ArrayList<>();
+        if (headers instanceof Map) {
+            ((Map<?, ?>) headers).forEach((name, value) -> {
+                Map<String, Object> header = new LinkedHashMap<>();
+                header.put("name", String.valueOf(name));
+                header.put("value", String.valueOf(value));
+                list.add(header);
+            });
+        }
+        return list;
+    }
+
+    private static String headerValue(Object headers, String name) {
+        if (headers instanceof Map) {
+            for (Map.Entry<?, ?> header : ((Map<?, ?>) headers).entrySet()) {
+                if (name.equalsIgnoreCase(String.valueOf(header.getKey()))) {
+                    return String.valueOf(header.getValue());
+                }
+            }
+        }
+        return "";
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(Object value) {
+        return value instanceof Map ? (Map<String, Object>) value : new HashMap<>();
+    }
+
+    private static String sessionId(WebDriver driver) {
+        return driver instanceof RemoteWebDriver && ((RemoteWebDriver) driver).getSessionId() != null
+                ? ((RemoteWebDriver) driver).getSessionId().toString()
+                : Integer.toHexString(System.identityHashCode(driver));
+    }
+}
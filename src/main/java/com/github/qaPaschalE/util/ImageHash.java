@@ -0,0 +1,106 @@
+package com.github.qaPaschalE.util;
+
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * Perceptual image hashes: 64-bit fingerprints that stay equal, or nearly so, when an image changes
+ * imperceptibly, unlike a hash of the encoded bytes.
+ */
+final class ImageHash {
+    // COSINES[k][n] = cos((2n + 1) k pi / 64), the DCT-II basis for 32 samples
+    private static final double[][] COSINES = new double[8][32];
+
+    static {
+        for (int k = 0; k < 8; k++) {
+            for (int n = 0; n < 32; n++) {
+                COSINES[k][n] = Math.cos((2 * n + 1) * k * Math.PI / 64);
+            }
+        }
+    }
+
+    private ImageHash() {
+    }
+
+    /**
+     * Difference hash: the image is shrunk to 9x8 grey pixels and each bit records whether a pixel is brighter
+     * than its right neighbour.
+     *
+     * @param image The image.
+     * @return The 64-bit hash.
+     */
+    static long dHash(BufferedImage image) {
+        int[][] grey = shrinkToGrey(image, 9, 8);
+        long hash = 0;
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 8; x++) {
+                hash = (hash << 1) | (grey[y][x] > grey[y][x + 1] ? 1 : 0);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Perceptual hash: the image is shrunk to 32x32 grey pixels and transformed with a 2D DCT; each bit records
+     * whether one of the 8x8 lowest frequencies is above their median. It reflects the overall structure of the
+     * image and ignores fine detail such as anti-aliasing or JPEG noise.
+     *
+     * @param image The image.
+     * @return The 64-bit hash.
+     */
+    static long pHash(BufferedImage image) {
+        int[][] grey = shrinkToGrey(image, 32, 32);
+        double[][] dct = new double[8][8];
+        for (int u = 0; u < 8; u++) {
+            for (int v = 0; v < 8; v++) {
+                double sum = 0;
+                for (int y = 0; y < 32; y++) {
+                    for (int x = 0; x < 32; x++) {
+                        sum += grey[y][x] * COSINES[v][x] * COSINES[u][y];
+                    }
+                }
+                dct[u][v] = sum;
+            }
+        }
+        // The DC term is the mean brightness and would dominate the median
+        double[] ac = new double[63];
+        for (int i = 1; i < 64; i++) {
+            ac[i - 1] = dct[i / 8][i % 8];
+        }
+        Arrays.sort(ac);
+        double median = ac[31];
+        long hash = 0;
+        for (int i = 0; i < 64; i++) {
+            hash = (hash << 1) | (dct[i / 8][i % 8] > median ? 1 : 0);
+        }
+        return hash;
+    }
+
+    /**
+     * @param first  A hash.
+     * @param second Another hash of the same kind.
+     * @return The number of differing bits; 0 means the images look the same.
+     */
+    static int distance(long first, long second) {
+        return Long.bitCount(first ^ second);
+    }
+
+    /**
+     * Shrinks an image by area averaging, which keeps the mean brightness of each region, and converts it to
+     * grey levels (0-255).
+     */
+    static int[][] shrinkToGrey(BufferedImage image, int width, int height) {
+        Image scaled = image.getScaledInstance(width, height, Image.SCALE_AREA_AVERAGING);
+        BufferedImage small = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        small.getGraphics().drawImage(scaled, 0, 0, null);
+        int[][] grey = new int[height][width];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int rgb = small.getRGB(x, y);
+                grey[y][x] = (299 * ((rgb >> 16) & 0xff) + 587 * ((rgb >> 8) & 0xff) + 114 * (rgb & 0xff)) / 1000;
+            }
+        }
+        return grey;
+    }
+}
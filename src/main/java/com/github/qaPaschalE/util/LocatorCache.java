@@ -0,0 +1,222 @@
+package com.github.qaPaschalE.util;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.ElementNotInteractableException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Per-session cache of compiled selectors and resolved elements, so consecutive steps on the same selector
+ * neither re-parse it nor look the element up again.
+ *
+ * <p>Elements are handed out as proxies around the last resolved element, revalidated in the page before each
+ * reuse (see {@link #element(WebDriver, By, String, Function)}). A call that fails with
+ * {@link StaleElementReferenceException} (the element was re-rendered) or because the element cannot be
+ * interacted with yet re-resolves it through the original lookup, which waits as usual, and retries once.
+ * Navigation steps call {@link #invalidate(WebDriver)}; the cache is dropped when the session is released.
+ * Disable it with {@code locator.cache.enabled=false}.</p>
+ *
+ * <p>Hits, misses and re-finds are counted per thread; {@link #takeStats()} returns and resets them so
+ * the hooks can report them per scenario.</p>
+ */
+public class LocatorCache {
+    private static final Logger logger = LoggerFactory.getLogger(LocatorCache.class);
+    private static final Map<WebDriver, LocatorCache> caches = new ConcurrentHashMap<>();
+    private static final ThreadLocal<int[]> counters = ThreadLocal.withInitial(() -> new int[3]);
+    private static final int HITS = 0;
+    private static final int MISSES = 1;
+    private static final int REFINDS = 2;
+
+    // Whether a cached element still stands for its locator: in the document, matching the CSS selector or
+    // XPath (other locators are not rechecked) and, if required, displayed and enabled
+    private static final String REVALIDATE_SCRIPT =
+            "var el = arguments[0], using = arguments[1], value = arguments[2], clickable = arguments[3];"
+            + "if (!el.isConnected) { return false; }"
+            + "if (using === 'css selector' || using === 'tag name') {"
+            + "  if (!el.matches(value)) { return false; }"
+            + "} else if (using === 'xpath') {"
+            + "  var found = false;"
+            + "  var result = document.evaluate(value, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);"
+            + "  for (var i = 0; i < result.snapshotLength && !found; i++) { found = result.snapshotItem(i) === el; }"
+            + "  if (!found) { return false; }"
+            + "}"
+            + "if (!clickable) { return true; }"
+            + "var style = window.getComputedStyle(el), rect = el.getBoundingClientRect();"
+            + "return !el.disabled && style.visibility !== 'hidden' && style.display !== 'none'"
+            + "    && rect.width > 0 && rect.height > 0;";
+
+    private final Map<String, By> compiled = new ConcurrentHashMap<>();
+    private final Map<String, WebElement> resolved = new ConcurrentHashMap<>();
+
+    private LocatorCache() {
+    }
+
+    /**
+     * Returns the compiled locator for a selector string, compiling it on first use in the session.
+     *
+     * @param driver   The WebDriver session.
+     * @param selector The selector as written in the step.
+     * @param compiler Turns the selector into a locator.
+     * @return The locator.
+     */
+    public static By compile(WebDriver driver, String selector, Function<String, By> compiler) {
+        if (!ConfigLoader.isLocatorCacheEnabled()) {
+            return compiler.apply(selector);
+        }
+        return forSession(driver).compiled.computeIfAbsent(selector, compiler);
+    }
+
+    /**
+     * Returns the element last resolved for the locator in this session, or resolves and remembers it.
+     *
+     * <p>A cached element is revalidated with one script call before it is handed out: it must still be in the
+     * document, still match the locator and, for {@code "clickable"}, be displayed and enabled. Otherwise it is
+     * resolved again through {@code finder}, so the step's wait applies as if there had been no cache.</p>
+     *
+     * @param driver    The WebDriver session.
+     * @param locator   The element locator.
+     * @param condition "present" or "clickable", the condition {@code finder} waits for.
+     * @param finder    Resolves the element, typically an explicit wait.
+     * @return A handle that re-resolves itself if the element goes stale.
+     */
+    public static WebElement element(WebDriver driver, By locator, String condition,
+                                     Function<By, WebElement> finder) {
+        if (!ConfigLoader.isLocatorCacheEnabled()) {
+            return finder.apply(locator);
+        }
+        Map<String, WebElement> resolved = forSession(driver).resolved;
+        String key = locator.toString();
+        WebElement cached = resolved.get(key);
+        if (cached != null) {
+            ReResolvingHandler handler = (ReResolvingHandler) Proxy.getInvocationHandler(cached);
+            // Re-resolve with this step's lookup, e.g. a clickable wait rather than a presence wait
+            handler.finder = finder;
+            if (isStillValid(driver, locator, handler.element, "clickable".equals(condition))) {
+                counters.get()[HITS]++;
+                return cached;
+            }
+            counters.get()[REFINDS]++;
+            logger.debug("Cached element for {} no longer valid, resolving it again", locator);
+            handler.element = finder.apply(locator);
+            return cached;
+        }
+        counters.get()[MISSES]++;
+        WebElement handle = (WebElement) Proxy.newProxyInstance(LocatorCache.class.getClassLoader(),
+                new Class<?>[]{WebElement.class, WrapsElement.class, Locatable.class},
+                new ReResolvingHandler(locator, finder, finder.apply(locator)));
+        resolved.put(key, handle);
+        return handle;
+    }
+
+    /**
+     * Forgets the resolved elements of the session, e.g. after navigating to another page.
+     *
+     * @param driver The WebDriver session.
+     */
+    public static void invalidate(WebDriver driver) {
+        LocatorCache cache = caches.get(driver);
+        if (cache != null) {
+            cache.resolved.clear();
+        }
+    }
+
+    /**
+     * Returns the cache counters of the current thread since the last call, and resets them.
+     *
+     * @return e.g. {@code "12 hits, 5 misses, 1 re-find"}; re-finds are cached elements that were stale or no
+     * longer valid, or null if the cache was not used.
+     */
+    public static String takeStats() {
+        int[] counts = counters.get();
+        String stats = counts[HITS] + counts[MISSES] == 0 ? null
+                : counts[HITS] + " hits, " + counts[MISSES] + " misses, " + counts[REFINDS] + " re-find"
+                + (counts[REFINDS] == 1 ? "" : "s");
+        counts[HITS] = 0;
+        counts[MISSES] = 0;
+        counts[REFINDS] = 0;
+        return stats;
+    }
+
+    /**
+     * Drops the cache of a session that is being released.
+     *
+     * @param driver The session.
+     */
+    static void stop(WebDriver driver) {
+        caches.remove(driver);
+    }
+
+    private static boolean isStillValid(WebDriver driver, By locator, WebElement element, boolean clickable) {
+        String using = null;
+        String value = null;
+        if (locator instanceof By.Remotable) {
+            By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+            using = parameters.using();
+            value = String.valueOf(parameters.value());
+        }
+        try {
+            return Boolean.TRUE.equals(((JavascriptExecutor) driver).executeScript(REVALIDATE_SCRIPT, element,
+                    using, value, clickable));
+        } catch (WebDriverException e) {
+            // Typically a stale element reference
+            return false;
+        }
+    }
+
+    private static LocatorCache forSession(WebDriver driver) {
+        return caches.computeIfAbsent(driver, d -> new LocatorCache());
+    }
+
+    private static final class ReResolvingHandler implements InvocationHandler {
+        private final By locator;
+        private volatile Function<By, WebElement> finder;
+        private volatile WebElement element;
+
+        private ReResolvingHandler(By locator, Function<By, WebElement> finder, WebElement element) {
+            this.locator = locator;
+            this.finder = finder;
+            this.element = element;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("getWrappedElement".equals(method.getName())) {
+                return element;
+            }
+            try {
+                return method.invoke(element, args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (!(cause instanceof StaleElementReferenceException
+                        || cause instanceof ElementNotInteractableException)) {
+                    throw cause;
+                }
+                if (cause instanceof StaleElementReferenceException) {
+                    counters.get()[REFINDS]++;
+                }
+                logger.debug("Re-resolving {} after {}", locator, cause.getClass().getSimpleName());
+                element = finder.apply(locator);
+                try {
+                    return method.invoke(element, args);
+                } catch (InvocationTargetException retry) {
+                    throw retry.getCause();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.github.qaPaschalE.util;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.DevTools;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Blocks requests a scenario never asserts on (analytics, ads, fonts, large images) through DevTools
+ * {@code Fetch} interception. URL patterns come from {@code network.block.urls} and resource types from
+ * {@code network.block.resource.types}; both are applied when a session is handed to a scenario, and more
+ * URL patterns can be added by a step. Blocked requests are failed with {@code BlockedByClient} and counted
+ * per rule.
+ *
+ * <p>Requests are normally blocked before they are sent, so their size is unknown. With
+ * {@code network.block.measure.bytes=true} they are blocked once the response headers arrive instead, and
+ * the {@code Content-Length} of every blocked response is added up.</p>
+ */
+public class NetworkBlocker {
+    private static final Logger logger = LoggerFactory.getLogger(NetworkBlocker.class);
+    private static final List<String> RESOURCE_TYPES = Arrays.asList("Document", "Stylesheet", "Image", "Media",
+            "Font", "Script", "TextTrack", "XHR", "Fetch", "Prefetch", "EventSource", "WebSocket", "Manifest",
+            "SignedExchange", "Ping", "CSPViolationReport", "Preflight", "Other");
+    private static final Map<WebDriver, NetworkBlocker> blockers = new ConcurrentHashMap<>();
+
+    private final DevTools devTools;
+    private final boolean measureBytes;
+    private final List<String> urlPatterns = new CopyOnWriteArrayList<>();
+    private final List<String> resourceTypes = new CopyOnWriteArrayList<>();
+    private final Map<String, AtomicInteger> blockedByRule = new ConcurrentHashMap<>();
+    private final AtomicInteger blockedRequests = new AtomicInteger();
+    private final AtomicLong blockedBytes = new AtomicLong();
+
+    private NetworkBlocker(DevTools devTools, boolean measureBytes) {
+        this.devTools = devTools;
+        this.measureBytes = measureBytes;
+    }
+
+    /**
+     * Applies the configured block rules to a session that is about to be used by a scenario. Does nothing
+     * when no rules are configured or the browser does not support DevTools.
+     *
+     * @param driver The session.
+     */
+    static void applyConfigured(WebDriver driver) {
+        List<String> urls = ConfigLoader.getNetworkBlockUrls();
+        List<String> types = ConfigLoader.getNetworkBlockResourceTypes();
+        if (urls.isEmpty() && types.isEmpty()) {
+            return;
+        }
+        if (!DevToolsSupport.isSupported(driver)) {
+            logger.warn("Network blocking is configured but {} does not support DevTools; requests are not blocked",
+                    ConfigLoader.getBrowserType());
+            return;
+        }
+        NetworkBlocker blocker = getOrStart(driver);
+        blocker.urlPatterns.addAll(urls);
+        for (String type : types) {
+            blocker.resourceTypes.add(normalizeResourceType(type));
+        }
+        blocker.enable();
+    }
+
+    /**
+     * Blocks every further request whose URL matches the pattern, in addition to the configured rules.
+     *
+     * @param driver     The session.
+     * @param urlPattern A URL pattern where {@code *} matches any characters and {@code ?} a single one,
+     *                   e.g. {@code *google-analytics.com*}.
+     * @throws UnsupportedOperationException if the browser does not support DevTools.
+     */
+    public static void block(WebDriver driver, String urlPattern) {
+        if (!DevToolsSupport.isSupported(driver)) {
+            throw new UnsupportedOperationException("Blocking requests requires a Chromium browser with DevTools "
+                    + "support, not " + ConfigLoader.getBrowserType());
+        }
+        NetworkBlocker blocker = getOrStart(driver);
+        blocker.urlPatterns.add(urlPattern);
+        blocker.enable();
+    }
+
+    /**
+     * Summarizes what was blocked in the session so far, e.g.
+     * {@code "Blocked 14 request(s), 812.4 KB: Image=9, url:*analytics*=5"}.
+     *
+     * @param driver The session.
+     * @return The summary, or null if no blocking is active for the session.
+     */
+    public static String describe(WebDriver driver) {
+        NetworkBlocker blocker = blockers.get(driver);
+        if (blocker == null) {
+            return null;
+        }
+        StringBuilder summary = new StringBuilder("Blocked ").append(blocker.blockedRequests.get())
+                .append(" request(s)");
+        if (blocker.measureBytes) {
+            summary.append(String.format(", %.1f KB", blocker.blockedBytes.get() / 1024.0));
+        }
+        Map<String, Integer> byRule = new TreeMap<>();
+        blocker.blockedByRule.forEach((rule, count) -> byRule.put(rule, count.get()));
+        if (!byRule.isEmpty()) {
+            List<String> parts = new ArrayList<>();
+            byRule.forEach((rule, count) -> parts.add(rule + "=" + count));
+            summary.append(": ").append(String.join(", ", parts));
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Stops blocking and removes the interception, so a pooled session is handed back without it. The listener
+     * goes when the shared DevTools connection is released.
+     *
+     * @param driver The session.
+     */
+    static void stop(WebDriver driver) {
+        NetworkBlocker blocker = blockers.remove(driver);
+        if (blocker == null) {
+            return;
+        }
+        try {
+            DevToolsSupport.send(blocker.devTools, "Fetch.disable", new HashMap<>());
+        } catch (RuntimeException e) {
+            logger.warn("Failed to stop network blocking: {}", e.getMessage());
+        }
+    }
+
+    private static NetworkBlocker getOrStart(WebDriver driver) {
+        return blockers.computeIfAbsent(driver, d -> {
+            NetworkBlocker blocker = new NetworkBlocker(DevToolsSupport.attach(d),
+                    ConfigLoader.isNetworkBlockMeasureBytes());
+            DevToolsSupport.on(blocker.devTools, "Fetch.requestPaused", blocker::onRequestPaused);
+            return blocker;
+        });
+    }
+
+    /**
+     * (Re)enables Fetch interception with one pattern per rule; calling {@code Fetch.enable} again replaces
+     * the previous patterns.
+     */
+    private synchronized void enable() {
+        String stage = measureBytes ? "Response" : "Request";
+        List<Map<String, Object>> patterns = new ArrayList<>();
+        for (String url : urlPatterns) {
+            patterns.add(DevToolsSupport.params("urlPattern", url, "requestStage", stage));
+        }
+        for (String type : resourceTypes) {
+            patterns.add(DevToolsSupport.params("urlPattern", "*", "resourceType", type, "requestStage", stage));
+        }
+        DevToolsSupport.send(devTools, "Fetch.enable", DevToolsSupport.params("patterns", patterns));
+        logger.debug("Blocking requests matching {} and resource types {}", urlPatterns, resourceTypes);
+    }
+
+    private void onRequestPaused(Map<String, Object> event) {
+        try {
+            DevToolsSupport.send(devTools, "Fetch.failRequest",
+                    DevToolsSupport.params("requestId", event.get("requestId"), "errorReason", "BlockedByClient"));
+        } catch (RuntimeException e) {
+            // The request may already be gone, e.g. after a navigation
+            logger.debug("Failed to block request: {}", e.getMessage());
+            return;
+        }
+        blockedRequests.incrementAndGet();
+        blockedByRule.computeIfAbsent(matchingRule(event), rule -> new AtomicInteger()).incrementAndGet();
+        if (measureBytes) {
+            blockedBytes.addAndGet(contentLength(event));
+        }
+    }
+
+    private String matchingRule(Map<String, Object> event) {
+        Object type = event.get("resourceType");
+        if (type != null && resourceTypes.contains(String.valueOf(type))) {
+            return String.valueOf(type);
+        }
+        Object request = event.get("request");
+        String url = request instanceof Map ? String.valueOf(((Map<?, ?>) request).get("url")) : "";
+        for (String pattern : urlPatterns) {
+            if (globToRegex(pattern).matcher(url).matches()) {
+                return "url:" + pattern;
+            }
+        }
+        return "other";
+    }
+
+    private static long contentLength(Map<String, Object> event) {
+        Object headers = event.get("responseHeaders");
+        if (headers instanceof List) {
+            for (Object header : (List<?>) headers) {
+                Map<?, ?> entry = (Map<?, ?>) header;
+                if ("content-length".equalsIgnoreCase(String.valueOf(entry.get("name")))) {
+                    try {
+                        return Long.parseLong(String.valueOf(entry.get("value")).trim());
+                    } catch (NumberFormatException e) {
+                        return 0;
+                    }
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static Pattern globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (char c : glob.toCharArray()) {
+            if (c == '*') {
+                regex.append(".*");
+            } else if (c == '?') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private static String normalizeResourceType(String type) {
+        for (String known : RESOURCE_TYPES) {
+            if (known.equalsIgnoreCase(type)) {
+                return known;
+            }
+        }
+        throw new RuntimeException("Invalid value for 'network.block.resource.types' in config.properties: " + type
+                + ". Supported types: " + RESOURCE_TYPES);
+    }
+}
@@ -0,0 +1,169 @@
+package com.github.qaPaschalE.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the current page's performance from the browser's Performance APIs: Navigation Timing, Paint Timing
+ * and buffered {@code PerformanceObserver} entries for largest contentful paint, layout shifts and long tasks.
+ * All times are milliseconds since navigation start.
+ *
+ * <p>Cumulative layout shift is the largest session window (shifts less than 1 s apart, at most 5 s long),
+ * excluding shifts right after user input. Total blocking time sums the part of each long task over 50 ms.
+ * Browsers that do not support an entry type leave that metric null.</p>
+ *
+ * <p>The records measured during a scenario are kept per thread, one per URL; {@link #takeRecords()} hands
+ * them to the hooks for the report. With {@code performance.history.file} set, the records taken are also appended
+ * to that JSON lines file so CI can track the metrics across runs.</p>
+ */
+public class PagePerformance {
+    private static final Logger logger = LoggerFactory.getLogger(PagePerformance.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final ThreadLocal<Map<String, Map<String, Object>>> records =
+            ThreadLocal.withInitial(LinkedHashMap::new);
+    private static final Object historyLock = new Object();
+
+    private static final String LOADED_SCRIPT =
+            "var nav = performance.getEntriesByType('navigation')[0];"
+            + "return document.readyState === 'complete'"
+            + "    && (nav ? nav.loadEventEnd > 0 : performance.timing.loadEventEnd > 0);";
+
+    private static final String MEASURE_SCRIPT =
+            "var done = arguments[arguments.length - 1];"
+            + "var record = {url: location.href};"
+            + "var nav = performance.getEntriesByType('navigation')[0];"
+            + "if (nav) {"
+            + "  record.timeToFirstByte = nav.responseStart;"
+            + "  record.domContentLoaded = nav.domContentLoadedEventEnd;"
+            + "  record.load = nav.loadEventEnd;"
+            + "  record.transferSize = nav.transferSize;"
+            + "} else {"
+            + "  var t = performance.timing;"
+            + "  record.timeToFirstByte = t.responseStart - t.navigationStart;"
+            + "  record.domContentLoaded = t.domContentLoadedEventEnd - t.navigationStart;"
+            + "  record.load = t.loadEventEnd - t.navigationStart;"
+            + "}"
+            + "performance.getEntriesByType('paint').forEach(function (entry) {"
+            + "  record[entry.name === 'first-paint' ? 'firstPaint' : 'firstContentfulPaint'] = entry.startTime;"
+            + "});"
+            + "var observe = function (type, handle) {"
+            + "  try {"
+            + "    var observer = new PerformanceObserver(function (list) { list.getEntries().forEach(handle); });"
+            + "    observer.observe({type: type, buffered: true});"
+            + "    return observer;"
+            + "  } catch (e) {"
+            + "    return null;"
+            + "  }"
+            + "};"
+            + "var supported = PerformanceObserver.supportedEntryTypes || [];"
+            + "var lcp = null, cls = supported.indexOf('layout-shift') >= 0 ? 0 : null, longTasks = [];"
+            + "var shiftWindow = {value: 0, start: -Infinity, last: -Infinity};"
+            + "var observers = ["
+            + "  observe('largest-contentful-paint', function (entry) { lcp = entry.startTime; }),"
+            + "  observe('layout-shift', function (entry) {"
+            + "    if (entry.hadRecentInput) { return; }"
+            + "    if (entry.startTime - shiftWindow.last < 1000 && entry.startTime - shiftWindow.start < 5000) {"
+            + "      shiftWindow.value += entry.value;"
+            + "    } else {"
+            + "      shiftWindow = {value: entry.value, start: entry.startTime};"
+            + "    }"
+            + "    shiftWindow.last = entry.startTime;"
+            + "    cls = Math.max(cls, shiftWindow.value);"
+            + "  }),"
+            + "  observe('longtask', function (entry) {"
+            + "    longTasks.push({start: entry.startTime, duration: entry.duration});"
+            + "  })"
+            + "];"
+            // Buffered entries are delivered in a later task
+            + "setTimeout(function () {"
+            + "  observers.forEach(function (observer) { if (observer) { observer.disconnect(); } });"
+            + "  record.largestContentfulPaint = lcp;"
+            + "  record.cumulativeLayoutShift = cls;"
+            + "  record.longTasks = longTasks;"
+            + "  record.totalBlockingTime = longTasks.reduce(function (sum, task) {"
+            + "    return sum + Math.max(0, task.duration - 50);"
+            + "  }, 0);"
+            + "  done(record);"
+            + "}, 50);";
+
+    private PagePerformance() {
+    }
+
+    /**
+     * Measures the current page once it has finished loading.
+     *
+     * @param driver The WebDriver session.
+     * @return The performance record; keys such as {@code load}, {@code largestContentfulPaint} and
+     * {@code cumulativeLayoutShift} map to numbers, or null where the browser reports nothing.
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> measure(WebDriver driver) {
+        WaitEngine.until(driver, "ready", "page load event",
+                d -> Boolean.TRUE.equals(((JavascriptExecutor) d).executeScript(LOADED_SCRIPT)));
+        Map<String, Object> record = new LinkedHashMap<>(
+                (Map<String, Object>) ((JavascriptExecutor) driver).executeAsyncScript(MEASURE_SCRIPT));
+        record.put("measuredAt", Instant.now().toString());
+        records.get().put(String.valueOf(record.get("url")), record);
+        return record;
+    }
+
+    /**
+     * Returns the records measured on the current thread since the last call, one per URL, and clears them.
+     * The records are appended to {@code performance.history.file} here, so a page asserted on several times
+     * is written once, with its latest measurement.
+     *
+     * @return The records, in the order the pages were first measured.
+     */
+    public static List<Map<String, Object>> takeRecords() {
+        List<Map<String, Object>> taken = new ArrayList<>(records.get().values());
+        records.get().clear();
+        appendHistory(taken);
+        return taken;
+    }
+
+    /**
+     * @param records Performance records.
+     * @return The records as a JSON array.
+     */
+    public static String toJson(List<Map<String, Object>> records) {
+        try {
+            return mapper.writerWithDefaultPrettyPrinter().writeValueAsString(records);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize page performance records", e);
+        }
+    }
+
+    private static void appendHistory(List<Map<String, Object>> taken) {
+        String history = ConfigLoader.getPerformanceHistoryFile();
+        if (history == null || taken.isEmpty()) {
+            return;
+        }
+        synchronized (historyLock) {
+            File file = new File(history);
+            if (file.getParentFile() != null) {
+                file.getParentFile().mkdirs();
+            }
+            try (PrintWriter writer = new PrintWriter(new FileWriter(file, true))) {
+                for (Map<String, Object> record : taken) {
+                    writer.println(mapper.writeValueAsString(record));
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to append page performance to {}: {}", file, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.github.qaPaschalE.util;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.DevTools;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Waits for the application to settle instead of sleeping for a fixed time.
+ *
+ * <p>Network idle means no XHR or fetch request has been in flight for {@code wait.network.quiet.millis}.
+ * With {@code wait.network.track=true} (the default when {@code wait.sleep.smart=true}) requests on Chromium
+ * browsers are tracked through DevTools network events from the moment a scenario gets its session until it is
+ * released, so requests already in flight when a wait starts are counted; otherwise the page's resource timing
+ * entries are watched instead. Page ready
+ * means {@code document.readyState} is complete, jQuery has no active requests, Angular and AngularJS report
+ * stable, and the network is idle.</p>
+ *
+ * <p>With {@code wait.sleep.smart=true} the fixed-sleep steps wait for page readiness instead, bounded by
+ * the requested sleep; the time saved is kept per thread for the scenario report. The explicit waits use
+ * {@code wait.timeout.network} and {@code wait.timeout.ready}.</p>
+ */
+public class PageReadiness {
+    private static final Logger logger = LoggerFactory.getLogger(PageReadiness.class);
+    private static final Map<WebDriver, NetworkTracker> trackers = new ConcurrentHashMap<>();
+    private static final ThreadLocal<long[]> sleepSavedMillis = ThreadLocal.withInitial(() -> new long[1]);
+
+    private static final String FRAMEWORKS_IDLE_SCRIPT =
+            "if (document.readyState !== 'complete') { return false; }"
+            + "if (window.jQuery && window.jQuery.active > 0) { return false; }"
+            + "if (window.getAllAngularTestabilities) {"
+            + "  var testabilities = window.getAllAngularTestabilities();"
+            + "  for (var i = 0; i < testabilities.length; i++) {"
+            + "    if (!testabilities[i].isStable()) { return false; }"
+            + "  }"
+            + "}"
+            + "if (window.angular && window.angular.element) {"
+            + "  try {"
+            + "    var injector = window.angular.element(document.body).injector();"
+            + "    if (injector && injector.get('$http').pendingRequests.length > 0) { return false; }"
+            + "  } catch (e) { }"
+            + "}"
+            + "return true;";
+
+    private PageReadiness() {
+    }
+
+    /**
+     * Waits until no XHR or fetch request has been in flight for the quiet window.
+     *
+     * @param driver The WebDriver session.
+     * @throws TimeoutException if the network does not go quiet within {@code wait.timeout.network}.
+     */
+    public static void waitForNetworkIdle(WebDriver driver) {
+        waitForNetworkIdle(driver, Duration.ofSeconds(ConfigLoader.getWaitTimeout("network")));
+    }
+
+    private static void waitForNetworkIdle(WebDriver driver, Duration timeout) {
+        long quietNanos = ConfigLoader.getNetworkQuietMillis() * 1_000_000L;
+        // A tracker started mid-scenario would miss requests already in flight, so only the one attached
+        // with the session counts; without it the resource timing entries are watched
+        NetworkTracker tracker = trackers.get(driver);
+        if (tracker != null) {
+            WaitEngine.until(driver, timeout, "network idle", d -> tracker.isQuietFor(quietNanos));
+        } else {
+            long[] lastChange = {System.nanoTime(), -1};
+            WaitEngine.until(driver, timeout, "network idle", d -> {
+                long entries = ((Number) ((JavascriptExecutor) d).executeScript(
+                        "return performance.getEntriesByType('resource').length;")).longValue();
+                if (entries != lastChange[1]) {
+                    lastChange[1] = entries;
+                    lastChange[0] = System.nanoTime();
+                }
+                return System.nanoTime() - lastChange[0] >= quietNanos;
+            });
+        }
+    }
+
+    /**
+     * Waits until the document has loaded, known frameworks report idle and the network is quiet.
+     *
+     * @param driver The WebDriver session.
+     * @throws TimeoutException if the page does not settle within {@code wait.timeout.ready}.
+     */
+    public static void waitUntilReady(WebDriver driver) {
+        waitUntilReady(driver, Duration.ofSeconds(ConfigLoader.getWaitTimeout("ready")));
+    }
+
+    private static void waitUntilReady(WebDriver driver, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        WaitEngine.until(driver, timeout, "page ready",
+                d -> Boolean.TRUE.equals(((JavascriptExecutor) d).executeScript(FRAMEWORKS_IDLE_SCRIPT)));
+        waitForNetworkIdle(driver, Duration.ofNanos(Math.max(0, deadline - System.nanoTime())));
+    }
+
+    /**
+     * Replaces a fixed sleep: with {@code wait.sleep.smart=true} and a browser open, waits for the page to
+     * be ready but never longer than the requested time; otherwise sleeps.
+     *
+     * @param driver The WebDriver session, or null if the scenario has none.
+     * @param millis The requested sleep.
+     */
+    public static void sleep(WebDriver driver, long millis) {
+        if (driver == null || !ConfigLoader.isSmartSleepEnabled()) {
+            sleepUninterruptibly(millis);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            waitUntilReady(driver, Duration.ofMillis(millis));
+        } catch (TimeoutException e) {
+            // Not ready within the requested time, which is then fully spent like the sleep it replaces
+            logger.debug("Page not ready within the {} ms sleep: {}", millis, e.getMessage());
+            return;
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        sleepSavedMillis.get()[0] += Math.max(0, millis - elapsedMillis);
+    }
+
+    /**
+     * Returns the sleep time the current thread avoided since the last call, and resets it.
+     *
+     * @return The saved time in milliseconds.
+     */
+    public static long takeSleepSavedMillis() {
+        long[] saved = sleepSavedMillis.get();
+        long millis = saved[0];
+        saved[0] = 0;
+        return millis;
+    }
+
+    /**
+     * Starts tracking network requests for a session, if enabled and the browser supports DevTools.
+     *
+     * @param driver The session a scenario just got.
+     */
+    static void start(WebDriver driver) {
+        if (!ConfigLoader.isNetworkTrackingEnabled() || !DevToolsSupport.isSupported(driver)) {
+            return;
+        }
+        try {
+            trackers.computeIfAbsent(driver, NetworkTracker::new);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to start network tracking: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Stops tracking network requests for the session. Its listeners and the Network domain belong to the
+     * shared DevTools connection, which is released with the session.
+     *
+     * @param driver The session being released.
+     */
+    static void stop(WebDriver driver) {
+        trackers.remove(driver);
+    }
+
+    private static void sleepUninterruptibly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Thread was interrupted while waiting.", e);
+        }
+    }
+
+    /**
+     * Keeps the set of XHR and fetch requests in flight from DevTools network events.
+     */
+    private static final class NetworkTracker {
+        private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+        private volatile long lastActivityNanos = System.nanoTime();
+
+        private NetworkTracker(WebDriver driver) {
+            DevTools devTools = DevToolsSupport.attach(driver);
+            DevToolsSupport.on(devTools, "Network.requestWillBeSent", event -> {
+                Object type = event.get("type");
+                if ("XHR".equals(type) || "Fetch".equals(type)) {
+                    inFlight.add(String.valueOf(event.get("requestId")));
+                    lastActivityNanos = System.nanoTime();
+                }
+            });
+            DevToolsSupport.on(devTools, "Network.loadingFinished", this::onRequestDone);
+            DevToolsSupport.on(devTools, "Network.loadingFailed", this::onRequestDone);
+            DevToolsSupport.send(devTools, "Network.enable", new HashMap<>());
+        }
+
+        private void onRequestDone(Map<String, Object> event) {
+            if (inFlight.remove(String.valueOf(event.get("requestId")))) {
+                lastActivityNanos = System.nanoTime();
+            }
+        }
+
+        private boolean isQuietFor(long quietNanos) {
+            return inFlight.isEmpty() && System.nanoTime() - lastActivityNanos >= quietNanos;
+        }
+    }
+}
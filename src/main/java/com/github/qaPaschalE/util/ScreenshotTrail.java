@@ -0,0 +1,216 @@
+package com.github.qaPaschalE.util;
+
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A screenshot after every UI step, kept as small frames and turned into a filmstrip when the scenario fails.
+ * Enable it with {@code screenshot.trail.enabled=true}.
+ *
+ * <p>Only taking the screenshot happens on the scenario thread. Comparing and downscaling to
+ * {@code screenshot.trail.frame.width} run on the artifact encoder, one frame after the other. A screenshot
+ * identical to the previous one shows nothing new and is dropped, so long runs of unchanged steps cost one
+ * frame. Setting {@code screenshot.trail.hash.distance} to 0 or more also drops frames whose difference hash is
+ * within that many bits of the previous frame's; this saves more frames, but a changed word or a toggled
+ * checkbox can fall within even distance 0. At most {@code screenshot.trail.max.frames} frames are kept, the
+ * most recent ones.</p>
+ *
+ * <p>{@link #finish(boolean)} reports the frames captured and skipped, and the time spent on the scenario
+ * thread and in the background.</p>
+ */
+public class ScreenshotTrail {
+    private static final Logger logger = LoggerFactory.getLogger(ScreenshotTrail.class);
+    private static final ThreadLocal<ScreenshotTrail> trails = new ThreadLocal<>();
+    private static final int FILMSTRIP_COLUMNS = 4;
+    private static final int LABEL_HEIGHT = 18;
+    private static final long FINISH_TIMEOUT_SECONDS = 30;
+
+    private final List<Frame> frames = new ArrayList<>();
+    private CompletableFuture<Void> processed = CompletableFuture.completedFuture(null);
+    // Of the last kept frame, only touched by process(), which runs one frame at a time
+    private byte[] lastPng;
+    private long lastHash;
+    private int captured;
+    private int skipped;
+    private long captureNanos;
+    private long backgroundNanos;
+
+    private ScreenshotTrail() {
+    }
+
+    /**
+     * Takes a screenshot for the trail of the current thread's scenario.
+     *
+     * @param driver The WebDriver session.
+     * @param step   The number of the step that just ran.
+     */
+    public static void capture(WebDriver driver, int step) {
+        if (!ConfigLoader.isScreenshotTrailEnabled()) {
+            return;
+        }
+        ScreenshotTrail trail = trails.get();
+        if (trail == null) {
+            trail = new ScreenshotTrail();
+            trails.set(trail);
+        }
+        long start = System.nanoTime();
+        byte[] png;
+        try {
+            png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        } catch (RuntimeException e) {
+            logger.debug("No trail screenshot after step {}: {}", step, e.getMessage());
+            return;
+        } finally {
+            trail.captureNanos += System.nanoTime() - start;
+        }
+        trail.captured++;
+        ScreenshotTrail current = trail;
+        trail.processed = trail.processed.thenRunAsync(() -> current.process(step, png), ArtifactPipeline.encoder);
+    }
+
+    /**
+     * Ends the trail of the current thread's scenario.
+     *
+     * @param failed True to store the filmstrip of the scenario.
+     * @return The outcome, or null if no screenshot was taken.
+     */
+    public static Result finish(boolean failed) {
+        ScreenshotTrail trail = trails.get();
+        trails.remove();
+        if (trail == null) {
+            return null;
+        }
+        try {
+            trail.processed.get(FINISH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            logger.warn("Screenshot trail did not complete: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ArtifactPipeline.Artifact filmstrip = null;
+        synchronized (trail) {
+            if (failed && !trail.frames.isEmpty()) {
+                try {
+                    filmstrip = ArtifactPipeline.store("step-filmstrip", "image/jpeg", ".jpg",
+                            ArtifactPipeline.encodeJpeg(trail.filmstrip()));
+                } catch (IOException | RuntimeException e) {
+                    logger.warn("Failed to store the step filmstrip: {}", e.getMessage());
+                }
+            }
+            String summary = trail.captured + " screenshots, " + trail.skipped + " unchanged skipped, "
+                    + trail.frames.size() + " kept; " + TimeUnit.NANOSECONDS.toMillis(trail.captureNanos)
+                    + " ms on the scenario thread, " + TimeUnit.NANOSECONDS.toMillis(trail.backgroundNanos)
+                    + " ms in the background";
+            return new Result(summary, filmstrip);
+        }
+    }
+
+    private synchronized void process(int step, byte[] png) {
+        long start = System.nanoTime();
+        try {
+            if (Arrays.equals(png, lastPng)) {
+                skipped++;
+                return;
+            }
+            BufferedImage frame = ArtifactPipeline.scaleToWidth(ArtifactPipeline.decodePng(png),
+                    ConfigLoader.getScreenshotTrailFrameWidth());
+            int maxDistance = ConfigLoader.getScreenshotTrailHashDistance();
+            long hash = maxDistance >= 0 ? ImageHash.dHash(frame) : 0;
+            if (maxDistance >= 0 && lastPng != null && ImageHash.distance(lastHash, hash) <= maxDistance) {
+                skipped++;
+                return;
+            }
+            lastPng = png;
+            lastHash = hash;
+            frames.add(new Frame(step, frame));
+            if (frames.size() > ConfigLoader.getScreenshotTrailMaxFrames()) {
+                frames.remove(0);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to process the screenshot of step {}: {}", step, e.getMessage());
+        } finally {
+            backgroundNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Lays the frames out in rows, each labelled with its step number.
+     */
+    private BufferedImage filmstrip() {
+        int cellWidth = 0;
+        int cellHeight = 0;
+        for (Frame frame : frames) {
+            cellWidth = Math.max(cellWidth, frame.image.getWidth());
+            cellHeight = Math.max(cellHeight, frame.image.getHeight() + LABEL_HEIGHT);
+        }
+        int columns = Math.min(FILMSTRIP_COLUMNS, frames.size());
+        int rows = (frames.size() + columns - 1) / columns;
+        BufferedImage strip = new BufferedImage(columns * cellWidth, rows * cellHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = strip.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, strip.getWidth(), strip.getHeight());
+        for (int i = 0; i < frames.size(); i++) {
+            int x = (i % columns) * cellWidth;
+            int y = (i / columns) * cellHeight;
+            graphics.setColor(Color.BLACK);
+            graphics.drawString("Step " + frames.get(i).step, x + 4, y + LABEL_HEIGHT - 5);
+            graphics.drawImage(frames.get(i).image, x, y + LABEL_HEIGHT, null);
+            graphics.setColor(Color.LIGHT_GRAY);
+            graphics.drawRect(x, y, cellWidth - 1, cellHeight - 1);
+        }
+        graphics.dispose();
+        return strip;
+    }
+
+    private static final class Frame {
+        private final int step;
+        private final BufferedImage image;
+
+        private Frame(int step, BufferedImage image) {
+            this.step = step;
+            this.image = image;
+        }
+    }
+
+    /**
+     * The outcome of a scenario's trail.
+     */
+    public static final class Result {
+        private final String summary;
+        private final ArtifactPipeline.Artifact filmstrip;
+
+        private Result(String summary, ArtifactPipeline.Artifact filmstrip) {
+            this.summary = summary;
+            this.filmstrip = filmstrip;
+        }
+
+        /**
+         * @return Frames captured, skipped and kept, and the capture overhead.
+         */
+        public String getSummary() {
+            return summary;
+        }
+
+        /**
+         * @return The stored filmstrip, or null if the scenario passed or no frame was kept.
+         */
+        public ArtifactPipeline.Artifact getFilmstrip() {
+            return filmstrip;
+        }
+    }
+}
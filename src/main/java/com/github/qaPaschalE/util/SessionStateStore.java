@@ -0,0 +1,270 @@
+package com.github.qaPaschalE.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Saves a logged-in browser state (cookies, localStorage and sessionStorage) under a name, so later scenarios
+ * restore it instead of logging in through the UI again.
+ *
+ * <p>States are JSON files in {@code session.state.dir}, shared by all threads and runs. A state is expired when
+ * it is older than {@code session.state.max.age.minutes} or one of its cookies has expired. Restoring an
+ * expired or missing state refreshes it through the API when {@code session.refresh.<name>.url} is configured:
+ * the JSON body file is POSTed, and the response cookies (plus, optionally, a token copied into localStorage)
+ * become the new state. Threads restoring the same state refresh it only once.</p>
+ */
+public class SessionStateStore {
+    private static final Logger logger = LoggerFactory.getLogger(SessionStateStore.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final Map<String, Object> refreshLocks = new ConcurrentHashMap<>();
+
+    private static final String CAPTURE_SCRIPT =
+            "var dump = function (storage) {"
+            + "  var items = {};"
+            + "  for (var i = 0; i < storage.length; i++) { items[storage.key(i)] = storage.getItem(storage.key(i)); }"
+            + "  return items;"
+            + "};"
+            + "return {origin: location.origin, local: dump(localStorage), session: dump(sessionStorage)};";
+
+    private static final String APPLY_SCRIPT =
+            "var apply = function (storage, items) {"
+            + "  for (var key in items) { storage.setItem(key, items[key]); }"
+            + "};"
+            + "apply(localStorage, arguments[0]);"
+            + "apply(sessionStorage, arguments[1]);";
+
+    private SessionStateStore() {
+    }
+
+    /**
+     * Saves the cookies and web storage of the page currently open.
+     *
+     * @param driver The WebDriver session.
+     * @param name   The state name.
+     */
+    @SuppressWarnings("unchecked")
+    public static void save(WebDriver driver, String name) {
+        Map<String, Object> storage = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(CAPTURE_SCRIPT);
+        List<Map<String, Object>> cookies = new ArrayList<>();
+        for (Cookie cookie : driver.manage().getCookies()) {
+            cookies.add(toMap(cookie));
+        }
+        write(name, state((String) storage.get("origin"), cookies, (Map<String, Object>) storage.get("local"),
+                (Map<String, Object>) storage.get("session")));
+    }
+
+    /**
+     * Saves the cookies of an API response, e.g. a login call, as a state for the UI origin.
+     *
+     * @param name     The state name.
+     * @param response The response whose cookies to keep.
+     */
+    public static void saveResponseCookies(String name, Response response) {
+        write(name, state(uiOrigin(), cookiesOf(response), new HashMap<>(), new HashMap<>()));
+    }
+
+    /**
+     * Loads a saved state into the browser: opens its origin if needed, replaces the cookies, fills web
+     * storage and reloads the page so the application picks the state up.
+     *
+     * @param driver The WebDriver session.
+     * @param name   The state name.
+     * @throws IllegalStateException if the state is missing or expired and no refresh is configured.
+     */
+    @SuppressWarnings("unchecked")
+    public static void restore(WebDriver driver, String name) {
+        Map<String, Object> state = current(name);
+        String origin = (String) state.get("origin");
+        if (!driver.getCurrentUrl().startsWith(origin)) {
+            driver.get(origin);
+        }
+        driver.manage().deleteAllCookies();
+        for (Map<String, Object> entry : (List<Map<String, Object>>) state.get("cookies")) {
+            try {
+                driver.manage().addCookie(toCookie(entry));
+            } catch (WebDriverException e) {
+                logger.warn("Cookie '{}' of session '{}' not restored: {}", entry.get("name"), name, e.getMessage());
+            }
+        }
+        ((JavascriptExecutor) driver).executeScript(APPLY_SCRIPT, state.get("localStorage"), state.get("sessionStorage"));
+        driver.navigate().refresh();
+    }
+
+    private static Map<String, Object> current(String name) {
+        Map<String, Object> state = read(name);
+        String expiry = expiryReason(state);
+        if (expiry == null) {
+            return state;
+        }
+        synchronized (refreshLocks.computeIfAbsent(name, n -> new Object())) {
+            // Another thread may have refreshed the state while this one waited
+            state = read(name);
+            expiry = expiryReason(state);
+            if (expiry == null) {
+                return state;
+            }
+            if (ConfigLoader.getSessionRefreshSetting(name, "url") == null) {
+                throw new IllegalStateException("Session state '" + name + "' " + expiry
+                        + ". Save it again or configure session.refresh." + name + ".url.");
+            }
+            logger.info("Session state '{}' {}; refreshing it through the API", name, expiry);
+            refresh(name);
+            return read(name);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String expiryReason(Map<String, Object> state) {
+        if (state == null) {
+            return "has not been saved";
+        }
+        long now = System.currentTimeMillis();
+        long maxAgeMillis = ConfigLoader.getSessionStateMaxAgeMinutes() * 60_000L;
+        long savedAt = ((Number) state.get("savedAt")).longValue();
+        if (maxAgeMillis > 0 && now - savedAt > maxAgeMillis) {
+            return "is older than " + ConfigLoader.getSessionStateMaxAgeMinutes() + " minutes";
+        }
+        for (Map<String, Object> cookie : (List<Map<String, Object>>) state.get("cookies")) {
+            Object expiry = cookie.get("expiry");
+            if (expiry != null && ((Number) expiry).longValue() <= now) {
+                return "has an expired cookie '" + cookie.get("name") + "'";
+            }
+        }
+        return null;
+    }
+
+    private static void refresh(String name) {
+        String body = ConfigLoader.getSessionRefreshSetting(name, "body");
+        Response response = RestAssured.given()
+                .baseUri(ConfigLoader.getApiBaseUrl())
+                .contentType(ContentType.JSON)
+                .body(body == null ? "{}" : ConfigLoader.loadJsonFile(body))
+                .post(ConfigLoader.getSessionRefreshSetting(name, "url"));
+        if (response.getStatusCode() >= 400) {
+            throw new IllegalStateException("Refreshing session state '" + name + "' failed with HTTP "
+                    + response.getStatusCode() + ": " + response.asString());
+        }
+        Map<String, Object> localStorage = new HashMap<>();
+        String tokenField = ConfigLoader.getSessionRefreshSetting(name, "token.field");
+        String tokenKey = ConfigLoader.getSessionRefreshSetting(name, "token.key");
+        if (tokenField != null && tokenKey != null) {
+            Object token = response.jsonPath().get(tokenField);
+            if (token == null) {
+                throw new IllegalStateException("Login response for session state '" + name + "' has no field '"
+                        + tokenField + "'");
+            }
+            localStorage.put(tokenKey, String.valueOf(token));
+        }
+        write(name, state(uiOrigin(), cookiesOf(response), localStorage, new HashMap<>()));
+    }
+
+    private static List<Map<String, Object>> cookiesOf(Response response) {
+        // No domain: the cookies come from the API host but belong to the UI host
+        List<Map<String, Object>> cookies = new ArrayList<>();
+        for (io.restassured.http.Cookie cookie : response.getDetailedCookies()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", cookie.getName());
+            entry.put("value", cookie.getValue());
+            entry.put("path", cookie.hasPath() ? cookie.getPath() : "/");
+            entry.put("expiry", cookie.hasExpiryDate() ? cookie.getExpiryDate().getTime() : null);
+            entry.put("secure", cookie.isSecured());
+            entry.put("httpOnly", cookie.isHttpOnly());
+            cookies.add(entry);
+        }
+        return cookies;
+    }
+
+    private static Map<String, Object> state(String origin, List<Map<String, Object>> cookies,
+                                             Map<String, Object> localStorage, Map<String, Object> sessionStorage) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("savedAt", System.currentTimeMillis());
+        state.put("origin", origin);
+        state.put("cookies", cookies);
+        state.put("localStorage", localStorage);
+        state.put("sessionStorage", sessionStorage);
+        return state;
+    }
+
+    private static Map<String, Object> toMap(Cookie cookie) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("name", cookie.getName());
+        entry.put("value", cookie.getValue());
+        entry.put("domain", cookie.getDomain());
+        entry.put("path", cookie.getPath());
+        entry.put("expiry", cookie.getExpiry() == null ? null : cookie.getExpiry().getTime());
+        entry.put("secure", cookie.isSecure());
+        entry.put("httpOnly", cookie.isHttpOnly());
+        entry.put("sameSite", cookie.getSameSite());
+        return entry;
+    }
+
+    private static Cookie toCookie(Map<String, Object> entry) {
+        Object expiry = entry.get("expiry");
+        return new Cookie.Builder((String) entry.get("name"), (String) entry.get("value"))
+                .domain((String) entry.get("domain"))
+                .path((String) entry.get("path"))
+                .expiresOn(expiry == null ? null : new Date(((Number) expiry).longValue()))
+                .isSecure(Boolean.TRUE.equals(entry.get("secure")))
+                .isHttpOnly(Boolean.TRUE.equals(entry.get("httpOnly")))
+                .sameSite((String) entry.get("sameSite"))
+                .build();
+    }
+
+    private static String uiOrigin() {
+        URI uri = URI.create(ConfigLoader.getUiBaseUrl());
+        return uri.getScheme() + "://" + uri.getRawAuthority();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> read(String name) {
+        File file = file(name);
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            return mapper.readValue(file, Map.class);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read session state: " + file, e);
+        }
+    }
+
+    private static void write(String name, Map<String, Object> state) {
+        File file = file(name);
+        try {
+            Files.createDirectories(file.getParentFile().toPath());
+            // Write aside and rename, so a parallel restore never reads a half-written file
+            Path temp = Files.createTempFile(file.getParentFile().toPath(), "session-", ".tmp");
+            mapper.writerWithDefaultPrettyPrinter().writeValue(temp.toFile(), state);
+            Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to save session state: " + file, e);
+        }
+        logger.info("Saved session state '{}' to {}", name, file);
+    }
+
+    private static File file(String name) {
+        return new File(ConfigLoader.getSessionStateDir(), name.replaceAll("[^A-Za-z0-9._-]", "_") + ".json");
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.qaPaschalE.util;
+
+import org.openqa.selenium.chrome.AddHasCasting;
+import org.openqa.selenium.chrome.AddHasCdp;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.remote.CommandInfo;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A Chrome session opened through an already running chromedriver server. Unlike {@code ChromeDriver},
+ * quitting this driver only ends the session and leaves the shared chromedriver process running.
+ */
+class SharedServiceChromeDriver extends ChromiumDriver {
+
+    SharedServiceChromeDriver(URL serviceUrl, ChromeOptions options) {
+        super(new HttpCommandExecutor(chromeCommands(), serviceUrl), options, ChromeOptions.CAPABILITY);
+        casting = new AddHasCasting().getImplementation(getCapabilities(), getExecuteMethod());
+        cdp = new AddHasCdp().getImplementation(getCapabilities(), getExecuteMethod());
+    }
+
+    private static Map<String, CommandInfo> chromeCommands() {
+        Map<String, CommandInfo> commands = new HashMap<>();
+        commands.putAll(new AddHasCasting().getAdditionalCommands());
+        commands.putAll(new AddHasCdp().getAdditionalCommands());
+        return commands;
+    }
+}
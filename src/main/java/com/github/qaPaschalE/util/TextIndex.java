@@ -0,0 +1,157 @@
+package com.github.qaPaschalE.util;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Text lookups answered from an index kept inside the page, instead of {@code //*[contains(text(), ...)]}
+ * XPath scans of the whole document.
+ *
+ * <p>On first use in a document a TreeWalker collects every non-blank text node (outside script, style and
+ * template elements). A MutationObserver then keeps the index current incrementally: added subtrees and
+ * changed text nodes are added, and removed nodes are dropped the next time a query meets them. A query only
+ * compares the indexed strings, and the text is passed as a script argument, so quotes need no escaping.</p>
+ *
+ * <p>Matches are the elements owning a matching text node, in document order. Regex queries use JavaScript
+ * {@code RegExp} syntax. {@link ElementCollection} asks the page for the number of matches or for a single one,
+ * so only the elements a step uses are transferred.</p>
+ */
+public class TextIndex {
+
+    private static final String QUERY_SCRIPT =
+            "var idx = window.__seleniumTextIndex;"
+            + "if (!idx || idx.doc !== document) {"
+            + "  var skip = {SCRIPT: 1, STYLE: 1, NOSCRIPT: 1, TEMPLATE: 1};"
+            + "  var accept = function (node) {"
+            + "    return node.parentElement && !skip[node.parentElement.tagName] && /\\S/.test(node.data);"
+            + "  };"
+            + "  idx = window.__seleniumTextIndex = {doc: document, nodes: new Set()};"
+            + "  idx.add = function (root) {"
+            + "    if (root.nodeType === 3) { if (accept(root)) { idx.nodes.add(root); } return; }"
+            + "    if (root.nodeType !== 1 && root.nodeType !== 9 && root.nodeType !== 11) { return; }"
+            + "    var walker = document.createTreeWalker(root, NodeFilter.SHOW_TEXT, {"
+            + "      acceptNode: function (node) {"
+            + "        return accept(node) ? NodeFilter.FILTER_ACCEPT : NodeFilter.FILTER_REJECT;"
+            + "      }"
+            + "    });"
+            + "    for (var node = walker.nextNode(); node; node = walker.nextNode()) { idx.nodes.add(node); }"
+            + "  };"
+            + "  idx.add(document);"
+            + "  new MutationObserver(function (records) {"
+            + "    for (var r = 0; r < records.length; r++) {"
+            + "      var added = records[r].addedNodes;"
+            + "      for (var a = 0; a < added.length; a++) { idx.add(added[a]); }"
+            + "      if (records[r].type === 'characterData') { idx.add(records[r].target); }"
+            + "    }"
+            + "  }).observe(document, {childList: true, subtree: true, characterData: true});"
+            + "}"
+            + "var mode = arguments[0], text = arguments[1], root = arguments[2], pick = arguments[3];"
+            + "var pattern = mode === 'regex' ? new RegExp(text) : null;"
+            + "var owners = new Set(), found = [];"
+            + "idx.nodes.forEach(function (node) {"
+            + "  if (!node.isConnected) { idx.nodes.delete(node); return; }"
+            + "  var data = node.data;"
+            + "  var hit = mode === 'exact' ? data.trim() === text"
+            + "      : mode === 'contains' ? data.indexOf(text) >= 0 : pattern.test(data);"
+            + "  var owner = node.parentElement;"
+            + "  if (hit && !owners.has(owner) && (!root || (root !== owner && root.contains(owner)))) {"
+            + "    owners.add(owner);"
+            + "    found.push(owner);"
+            + "  }"
+            + "});"
+            + "found.sort(function (a, b) {"
+            + "  return a.compareDocumentPosition(b) & Node.DOCUMENT_POSITION_FOLLOWING ? -1 : 1;"
+            + "});"
+            + "if (pick === 'count') { return found.length; }"
+            + "if (typeof pick === 'number') {"
+            + "  if (pick < 0) { pick = found.length + pick; }"
+            + "  return pick >= 0 && pick < found.length ? found[pick] : null;"
+            + "}"
+            + "return found;";
+
+    private TextIndex() {
+    }
+
+    /**
+     * @param text The text to look for.
+     * @return A locator for elements whose own text contains {@code text}.
+     */
+    public static By containing(String text) {
+        return new ByIndexedText("contains", text);
+    }
+
+    /**
+     * @param text The text to look for.
+     * @return A locator for elements whose own text, trimmed, equals {@code text}.
+     */
+    public static By exactly(String text) {
+        return new ByIndexedText("exact", text);
+    }
+
+    /**
+     * @param regex A JavaScript regular expression.
+     * @return A locator for elements whose own text matches {@code regex}.
+     */
+    public static By matching(String regex) {
+        return new ByIndexedText("regex", regex);
+    }
+
+    /**
+     * Finds elements through the page's text index. Works as a normal locator, including in explicit waits
+     * and for searches below an element.
+     */
+    static final class ByIndexedText extends By {
+        private final String mode;
+        private final String text;
+
+        private ByIndexedText(String mode, String text) {
+            this.mode = mode;
+            this.text = text;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List<WebElement> findElements(SearchContext context) {
+            Object result = query(context, null);
+            return result instanceof List ? (List<WebElement>) result : new ArrayList<>();
+        }
+
+        /**
+         * @param context The driver, or the element to search below.
+         * @return The number of matches, without transferring them.
+         */
+        int count(SearchContext context) {
+            return ((Number) query(context, "count")).intValue();
+        }
+
+        /**
+         * @param context The driver, or the element to search below.
+         * @param index   A zero-based index; negative indexes count from the end.
+         * @return The match at that index, or null if there is none.
+         */
+        WebElement element(SearchContext context, int index) {
+            return (WebElement) query(context, index);
+        }
+
+        private Object query(SearchContext context, Object pick) {
+            WebElement root = null;
+            SearchContext driver = context;
+            if (context instanceof WebElement) {
+                root = (WebElement) context;
+                driver = ((WrapsDriver) context).getWrappedDriver();
+            }
+            return ((JavascriptExecutor) driver).executeScript(QUERY_SCRIPT, mode, text, root, pick);
+        }
+
+        @Override
+        public String toString() {
+            return "By.text (" + mode + "): " + text;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.qaPaschalE.util;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Enters text into a field with the configured typing strategy.
+ *
+ * <ul>
+ *     <li>{@code native}: {@code sendKeys}, one key event per character.</li>
+ *     <li>{@code js}: appends the text through the native {@code value} setter (or to the text of a
+ *     contenteditable element) and fires {@code input} and {@code change} events.</li>
+ *     <li>{@code insert}: focuses the field, moves the caret to the end and inserts the text with the DevTools
+ *     {@code Input.insertText} command, the way a paste arrives. Falls back to {@code js} on browsers without
+ *     DevTools.</li>
+ * </ul>
+ *
+ * <p>Text longer than {@code typing.fast.threshold} characters uses {@code typing.fast.strategy}, so JSON
+ * editors and large textareas no longer take seconds per field. Text containing WebDriver key codes
+ * ({@code Keys}) is always typed natively.</p>
+ */
+public class TextTyper {
+    private static final Logger logger = LoggerFactory.getLogger(TextTyper.class);
+
+    private static final String FOCUS_END_SCRIPT =
+            "var el = arguments[0];"
+            + "el.focus();"
+            + "if (el.isContentEditable) {"
+            + "  var range = document.createRange();"
+            + "  range.selectNodeContents(el);"
+            + "  range.collapse(false);"
+            + "  var selection = window.getSelection();"
+            + "  selection.removeAllRanges();"
+            + "  selection.addRange(range);"
+            + "} else {"
+            + "  try { el.setSelectionRange(el.value.length, el.value.length); } catch (e) { }"
+            + "}";
+
+    private static final String SET_VALUE_SCRIPT =
+            "var el = arguments[0], text = arguments[1];"
+            + "el.focus();"
+            + "if (el.isContentEditable) {"
+            + "  el.textContent += text;"
+            + "} else {"
+            + "  var proto = el instanceof HTMLTextAreaElement ? HTMLTextAreaElement.prototype"
+            + "      : HTMLInputElement.prototype;"
+            + "  Object.getOwnPropertyDescriptor(proto, 'value').set.call(el, el.value + text);"
+            + "}"
+            + "el.dispatchEvent(new Event('input', {bubbles: true}));"
+            + "el.dispatchEvent(new Event('change', {bubbles: true}));";
+
+    private TextTyper() {
+    }
+
+    /**
+     * Appends text to a field, like {@link WebElement#sendKeys}.
+     *
+     * @param driver  The WebDriver session.
+     * @param element The field.
+     * @param text    The text to enter.
+     */
+    public static void type(WebDriver driver, WebElement element, String text) {
+        String strategy = strategyFor(text);
+        if ("insert".equals(strategy) && !DevToolsSupport.isSupported(driver)) {
+            strategy = "js";
+        }
+        logger.debug("Typing {} characters with the {} strategy", text.length(), strategy);
+        switch (strategy) {
+            case "native":
+                element.sendKeys(text);
+                break;
+            case "js":
+                ((JavascriptExecutor) driver).executeScript(SET_VALUE_SCRIPT, element, text);
+                break;
+            case "insert":
+                ((JavascriptExecutor) driver).executeScript(FOCUS_END_SCRIPT, element);
+                DevToolsSupport.send(DevToolsSupport.attach(driver), "Input.insertText",
+                        DevToolsSupport.params("text", text));
+                break;
+            default:
+                throw new RuntimeException("Unknown typing strategy '" + strategy
+                        + "'. Expected one of: native, js, insert");
+        }
+    }
+
+    private static String strategyFor(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '\uE000' && c <= '\uF8FF') {
+                // Keys.ENTER and friends only mean something to sendKeys
+                return "native";
+            }
+        }
+        int threshold = ConfigLoader.getTypingFastThreshold();
+        return threshold > 0 && text.length() > threshold
+                ? ConfigLoader.getTypingFastStrategy()
+                : ConfigLoader.getTypingStrategy();
+    }
+}
@@ -0,0 +1,274 @@
+package com.github.qaPaschalE.util;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Compares the browser viewport with a baseline screenshot stored in {@code visual.baseline.dir}.
+ *
+ * <p>A missing baseline is created from the current page, and so is every baseline when
+ * {@code visual.baseline.update=true}. Elements matching {@code visual.ignore.selectors}, or the selectors passed
+ * to {@link #compare(WebDriver, String, List)}, are masked out of both images. The comparison is done in
+ * stages:</p>
+ * <ol>
+ *     <li>Identical pixel data passes straight away.</li>
+ *     <li>With {@code visual.hash.fail.distance} at 0 or more, both images are reduced to a perceptual hash, and
+ *     hashes more than that many bits apart fail the check without a pixel diff. The hash only sees coarse
+ *     structure, so close hashes prove nothing: a changed word or digit keeps the same hash, and such pages
+ *     always go on to the pixel diff.</li>
+ *     <li>The images are split into {@code visual.tile.size} tiles that are compared in parallel. A pixel
+ *     differs when one of its channels is off by more than {@code visual.pixel.tolerance}, which absorbs
+ *     anti-aliasing and rendering noise. The check fails when more than {@code visual.max.diff.ratio} of the
+ *     pixels differ.</li>
+ * </ol>
+ *
+ * <p>Only a failed check produces images: the current screenshot and a diff with the differing pixels in red
+ * are stored with the artifacts, and {@link #takeMismatches()} hands them to the hooks for the report.</p>
+ */
+public class VisualSnapshot {
+    private static final Logger logger = LoggerFactory.getLogger(VisualSnapshot.class);
+    private static final ThreadLocal<List<ArtifactPipeline.Artifact>> mismatches =
+            ThreadLocal.withInitial(ArrayList::new);
+    private static final int DIFF_COLOR = 0xff0000;
+
+    private static final String IGNORE_SCRIPT =
+            "var ratio = window.devicePixelRatio || 1, rects = [];"
+            + "arguments[0].forEach(function (selector) {"
+            + "  Array.prototype.forEach.call(document.querySelectorAll(selector), function (element) {"
+            + "    var r = element.getBoundingClientRect();"
+            + "    if (r.width > 0 && r.height > 0) {"
+            + "      rects.push([Math.floor(r.left * ratio), Math.floor(r.top * ratio),"
+            + "          Math.ceil(r.width * ratio), Math.ceil(r.height * ratio)]);"
+            + "    }"
+            + "  });"
+            + "});"
+            + "return rects;";
+
+    private VisualSnapshot() {
+    }
+
+    /**
+     * Compares the viewport with the baseline {@code name}.
+     *
+     * @param driver          The WebDriver session.
+     * @param name            The snapshot name; the baseline is {@code <name>.png}.
+     * @param ignoreSelectors CSS selectors of elements to mask, in addition to {@code visual.ignore.selectors}.
+     * @return The outcome.
+     */
+    public static Result compare(WebDriver driver, String name, List<String> ignoreSelectors) {
+        List<String> selectors = new ArrayList<>(ConfigLoader.getVisualIgnoreSelectors());
+        selectors.addAll(ignoreSelectors);
+        List<int[]> ignored = ignoredRegions(driver, selectors);
+        byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        File baselineFile = baselineFile(name);
+        try {
+            if (ConfigLoader.isVisualBaselineUpdate() || !baselineFile.isFile()) {
+                writeBaseline(baselineFile, png);
+                logger.info("Visual baseline '{}' written to {}", name, baselineFile);
+                return new Result(true, "Baseline '" + name + "' written to " + baselineFile);
+            }
+            BufferedImage actual = ArtifactPipeline.scaleToWidth(ArtifactPipeline.decodePng(png), 0);
+            BufferedImage expected = ArtifactPipeline.scaleToWidth(
+                    ArtifactPipeline.decodePng(Files.readAllBytes(baselineFile.toPath())), 0);
+            if (actual.getWidth() != expected.getWidth() || actual.getHeight() != expected.getHeight()) {
+                return mismatch(name, png, null, "Snapshot '" + name + "' is " + actual.getWidth() + "x"
+                        + actual.getHeight() + ", baseline is " + expected.getWidth() + "x" + expected.getHeight());
+            }
+            mask(actual, ignored);
+            mask(expected, ignored);
+            int width = actual.getWidth();
+            int height = actual.getHeight();
+            int[] actualPixels = actual.getRGB(0, 0, width, height, null, 0, width);
+            int[] expectedPixels = expected.getRGB(0, 0, width, height, null, 0, width);
+            if (Arrays.equals(actualPixels, expectedPixels)) {
+                return new Result(true, "Snapshot '" + name + "' matches its baseline: identical pixels");
+            }
+            int maxHashDistance = ConfigLoader.getVisualHashFailDistance();
+            if (maxHashDistance >= 0) {
+                int distance = ImageHash.distance(ImageHash.pHash(actual), ImageHash.pHash(expected));
+                if (distance > maxHashDistance) {
+                    return mismatch(name, png, null, "Snapshot '" + name + "' does not match its baseline: "
+                            + "perceptual hashes differ in " + distance + " of 64 bits, at most " + maxHashDistance
+                            + " allowed before the pixel diff");
+                }
+            }
+            return diff(name, png, width, height, actualPixels, expectedPixels);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to compare snapshot '" + name + "' with " + baselineFile, e);
+        }
+    }
+
+    /**
+     * Returns the artifacts stored for failed checks on the current thread since the last call, and clears them.
+     *
+     * @return The actual screenshots and diff images.
+     */
+    public static List<ArtifactPipeline.Artifact> takeMismatches() {
+        List<ArtifactPipeline.Artifact> taken = new ArrayList<>(mismatches.get());
+        mismatches.get().clear();
+        return taken;
+    }
+
+    private static Result diff(String name, byte[] png, int width, int height, int[] actualPixels,
+                               int[] expectedPixels) throws IOException {
+        int tolerance = ConfigLoader.getVisualPixelTolerance();
+        int tileSize = Math.max(16, ConfigLoader.getVisualTileSize());
+        int columns = (width + tileSize - 1) / tileSize;
+        int rows = (height + tileSize - 1) / tileSize;
+        long[] differingPerTile = new long[columns * rows];
+        IntStream.range(0, differingPerTile.length).parallel().forEach(tile -> {
+            int left = (tile % columns) * tileSize;
+            int top = (tile / columns) * tileSize;
+            long differing = 0;
+            for (int y = top; y < Math.min(top + tileSize, height); y++) {
+                for (int i = y * width + left; i < y * width + Math.min(left + tileSize, width); i++) {
+                    if (actualPixels[i] != expectedPixels[i]
+                            && exceeds(actualPixels[i], expectedPixels[i], tolerance)) {
+                        differing++;
+                    }
+                }
+            }
+            differingPerTile[tile] = differing;
+        });
+        long differing = 0;
+        int differingTiles = 0;
+        for (long count : differingPerTile) {
+            differing += count;
+            differingTiles += count > 0 ? 1 : 0;
+        }
+        double ratio = (double) differing / ((long) width * height);
+        String summary = String.format("%d pixels (%.4f%%) in %d of %d tiles differ", differing, ratio * 100,
+                differingTiles, differingPerTile.length);
+        if (ratio <= ConfigLoader.getVisualMaxDiffRatio()) {
+            return new Result(true, "Snapshot '" + name + "' matches its baseline: " + summary);
+        }
+        BufferedImage diff = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int[] diffPixels = new int[actualPixels.length];
+        for (int i = 0; i < diffPixels.length; i++) {
+            diffPixels[i] = actualPixels[i] != expectedPixels[i] && exceeds(actualPixels[i], expectedPixels[i],
+                    tolerance) ? DIFF_COLOR : fade(actualPixels[i]);
+        }
+        diff.setRGB(0, 0, width, height, diffPixels, 0, width);
+        return mismatch(name, png, diff, "Snapshot '" + name + "' does not match its baseline: " + summary
+                + ", at most " + ConfigLoader.getVisualMaxDiffRatio() * 100 + "% allowed");
+    }
+
+    private static Result mismatch(String name, byte[] png, BufferedImage diff, String message) throws IOException {
+        StringBuilder details = new StringBuilder(message);
+        List<ArtifactPipeline.Artifact> stored = mismatches.get();
+        ArtifactPipeline.Artifact actual = ArtifactPipeline.store("snapshot-" + name + "-actual", "image/png",
+                ".png", png);
+        stored.add(actual);
+        details.append("\nActual: ").append(actual.getUri());
+        if (diff != null) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(diff, "png", out);
+            ArtifactPipeline.Artifact diffArtifact = ArtifactPipeline.store("snapshot-" + name + "-diff",
+                    "image/png", ".png", out.toByteArray());
+            stored.add(diffArtifact);
+            details.append("\nDiff: ").append(diffArtifact.getUri());
+        }
+        return new Result(false, details.toString());
+    }
+
+    private static boolean exceeds(int first, int second, int tolerance) {
+        return Math.abs(((first >> 16) & 0xff) - ((second >> 16) & 0xff)) > tolerance
+                || Math.abs(((first >> 8) & 0xff) - ((second >> 8) & 0xff)) > tolerance
+                || Math.abs((first & 0xff) - (second & 0xff)) > tolerance;
+    }
+
+    /**
+     * Blends a pixel two thirds towards white, so the red differences stand out.
+     */
+    private static int fade(int rgb) {
+        int red = 170 + ((rgb >> 16) & 0xff) / 3;
+        int green = 170 + ((rgb >> 8) & 0xff) / 3;
+        int blue = 170 + (rgb & 0xff) / 3;
+        return (red << 16) | (green << 8) | blue;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<int[]> ignoredRegions(WebDriver driver, List<String> selectors) {
+        if (selectors.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<int[]> regions = new ArrayList<>();
+        for (List<Number> rect : (List<List<Number>>) ((JavascriptExecutor) driver)
+                .executeScript(IGNORE_SCRIPT, selectors)) {
+            regions.add(new int[]{rect.get(0).intValue(), rect.get(1).intValue(), rect.get(2).intValue(),
+                    rect.get(3).intValue()});
+        }
+        return regions;
+    }
+
+    private static void mask(BufferedImage image, List<int[]> regions) {
+        if (regions.isEmpty()) {
+            return;
+        }
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.BLACK);
+        for (int[] region : regions) {
+            graphics.fillRect(region[0], region[1], region[2], region[3]);
+        }
+        graphics.dispose();
+    }
+
+    private static File baselineFile(String name) {
+        return new File(ConfigLoader.getVisualBaselineDir(), name.replaceAll("[^A-Za-z0-9._-]", "_") + ".png");
+    }
+
+    private static void writeBaseline(File file, byte[] png) throws IOException {
+        Files.createDirectories(file.getParentFile().toPath());
+        // Write aside and rename, so a parallel comparison never reads a half-written file
+        Path temp = Files.createTempFile(file.getParentFile().toPath(), "baseline-", ".tmp");
+        Files.write(temp, png);
+        Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * The outcome of a snapshot comparison.
+     */
+    public static final class Result {
+        private final boolean match;
+        private final String message;
+
+        private Result(boolean match, String message) {
+            this.match = match;
+            this.message = message;
+        }
+
+        /**
+         * @return True if the page matches the baseline, or the baseline was just written.
+         */
+        public boolean isMatch() {
+            return match;
+        }
+
+        /**
+         * @return What was compared and, for a mismatch, where the actual and diff images are stored.
+         */
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,384 @@
+package com.github.qaPaschalE.util;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.FluentWait;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Explicit waits for UI steps. Sessions run with an implicit wait of zero, so every wait happens here with
+ * its own timeout: {@code wait.timeout.<condition>} in seconds (present, visible, clickable, absent, count),
+ * falling back to {@code wait.timeout}, polled every {@code wait.polling.millis}. Absence checks look the
+ * element up with {@code findElements}, which returns immediately, and pass on the first poll that finds
+ * nothing displayed.
+ *
+ * <p>With {@code wait.mode=observer}, present, visible and absent waits on CSS or XPath locators run inside
+ * the page instead: an injected MutationObserver re-checks the condition on every DOM change and resolves an
+ * {@code executeAsyncScript} call the moment it holds, so there is no poll interval of latency and no stream
+ * of find commands. If the script cannot run (e.g. a Content-Security-Policy blocks it) the wait falls back
+ * to polling.</p>
+ *
+ * <p>Time spent waiting is added up per thread; {@link #takeWaitedMillis()} returns and resets it so the
+ * hooks can report it per step.</p>
+ */
+public class WaitEngine {
+    private static final Logger logger = LoggerFactory.getLogger(WaitEngine.class);
+    private static final ThreadLocal<long[]> waitedNanos = ThreadLocal.withInitial(() -> new long[1]);
+    // Kept below the default 30 s script timeout; longer waits are split into several calls
+    private static final long MAX_OBSERVE_MILLIS = 20_000;
+    // Re-check on a timer as well, for changes no mutation reports (CSS animations, media queries)
+    private static final long OBSERVER_RECHECK_MILLIS = 500;
+    // Script errors raised when the page navigates away while an observer script is waiting (Chromium, Firefox)
+    private static final List<String> UNLOAD_MESSAGES = Arrays.asList("execution context was destroyed",
+            "cannot find context with specified id", "document unloaded", "document was unloaded");
+
+    private static final String OBSERVER_SCRIPT =
+            "var done = arguments[arguments.length - 1];"
+            + "var find = " + DomSnapshot.FIND_FUNCTION + ";"
+            + "var isDisplayed = " + DomSnapshot.IS_DISPLAYED_FUNCTION + ";"
+            + "var mode = arguments[0], selector = arguments[1], condition = arguments[2];"
+            + "var check = function () {"
+            + "  var found = find(mode, selector);"
+            + "  if (condition === 'present') { return found.length > 0 ? found : null; }"
+            + "  var visible = found.filter(isDisplayed);"
+            + "  if (condition === 'visible') { return visible.length > 0 ? visible : null; }"
+            + "  return visible.length === 0 ? [] : null;"
+            + "};"
+            + "var result = check();"
+            + "if (result) { done({met: true, elements: result}); return; }"
+            + "var finished = false, scheduled = false, observer, timer, timeout;"
+            + "var finish = function (met, elements) {"
+            + "  if (finished) { return; }"
+            + "  finished = true; observer.disconnect(); clearInterval(timer); clearTimeout(timeout);"
+            + "  done({met: met, elements: elements || []});"
+            + "};"
+            + "var recheck = function () {"
+            + "  scheduled = false;"
+            + "  var current = check();"
+            + "  if (current) { finish(true, current); }"
+            + "};"
+            + "observer = new MutationObserver(function () {"
+            + "  if (!scheduled) { scheduled = true; setTimeout(recheck, 0); }"
+            + "});"
+            + "observer.observe(document, {childList: true, subtree: true, attributes: true,"
+            + "    characterData: true});"
+            + "timer = setInterval(recheck, arguments[4]);"
+            + "timeout = setTimeout(function () { finish(false); }, arguments[3]);";
+
+    private WaitEngine() {
+    }
+
+    /**
+     * Waits until an element is present in the DOM.
+     *
+     * @param driver  The WebDriver session.
+     * @param locator The element locator.
+     * @return The first matching element.
+     * @throws NoSuchElementException if no element appears within {@code wait.timeout.present}.
+     */
+    public static WebElement present(WebDriver driver, By locator) {
+        Observation observed = observeElements(driver, locator, "present");
+        if (observed != null) {
+            if (!observed.met) {
+                throw new NoSuchElementException("Element not found within "
+                        + ConfigLoader.getWaitTimeout("present") + " s: " + locator);
+            }
+            return observed.elements.get(0);
+        }
+        try {
+            return until(driver, "present", "element " + locator, d -> d.findElement(locator));
+        } catch (TimeoutException e) {
+            throw new NoSuchElementException("Element not found within " + ConfigLoader.getWaitTimeout("present")
+                    + " s: " + locator, e);
+        }
+    }
+
+    /**
+     * Waits until an element is displayed. If elements match but none becomes visible in time, the first one
+     * is returned so the caller can report it as not displayed.
+     *
+     * @param driver  The WebDriver session.
+     * @param locator The element locator.
+     * @return The first displayed element, or the first match if none is displayed.
+     * @throws NoSuchElementException if no element matches within {@code wait.timeout.visible}.
+     */
+    public static WebElement visible(WebDriver driver, By locator) {
+        try {
+            Observation observed = observeElements(driver, locator, "visible");
+            if (observed != null) {
+                if (!observed.met) {
+                    throw new TimeoutException("Timed out waiting for visible element " + locator);
+                }
+                return observed.elements.get(0);
+            }
+            return until(driver, "visible", "visible element " + locator, d -> firstDisplayed(d, locator));
+        } catch (TimeoutException e) {
+            List<WebElement> elements = driver.findElements(locator);
+            if (elements.isEmpty()) {
+                throw new NoSuchElementException("Element not found within " + ConfigLoader.getWaitTimeout("visible")
+                        + " s: " + locator, e);
+            }
+            return elements.get(0);
+        }
+    }
+
+    /**
+     * Waits until an element is displayed and enabled.
+     *
+     * @param driver  The WebDriver session.
+     * @param locator The element locator.
+     * @return The element, or the first match if none becomes clickable in time.
+     * @throws NoSuchElementException if no element matches within {@code wait.timeout.clickable}.
+     */
+    public static WebElement clickable(WebDriver driver, By locator) {
+        try {
+            // Visibility is usually what a click waits for; let the observer catch that first
+            if (Boolean.FALSE.equals(observe(driver, locator, "visible"))) {
+                throw new TimeoutException("Timed out waiting for clickable element " + locator);
+            }
+            return until(driver, "clickable", "clickable element " + locator, d -> {
+                WebElement element = firstDisplayed(d, locator);
+                return element != null && element.isEnabled() ? element : null;
+            });
+        } catch (TimeoutException e) {
+            // Let the caller's click report why the element cannot be clicked
+            List<WebElement> elements = driver.findElements(locator);
+            if (elements.isEmpty()) {
+                throw new NoSuchElementException("Element not found within "
+                        + ConfigLoader.getWaitTimeout("clickable") + " s: " + locator, e);
+            }
+            return elements.get(0);
+        }
+    }
+
+    /**
+     * Waits until at least one element matches.
+     *
+     * @param driver  The WebDriver session.
+     * @param locator The element locator.
+     * @return The matching elements, or an empty list if none appears within {@code wait.timeout.present}.
+     */
+    public static List<WebElement> all(WebDriver driver, By locator) {
+        Observation observed = observeElements(driver, locator, "present");
+        if (observed != null) {
+            return observed.elements;
+        }
+        try {
+            return until(driver, "present", "elements " + locator, d -> {
+                List<WebElement> elements = d.findElements(locator);
+                return elements.isEmpty() ? null : elements;
+            });
+        } catch (TimeoutException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Waits until exactly the expected number of elements match.
+     *
+     * @param driver   The WebDriver session.
+     * @param locator  The element locator.
+     * @param expected The expected count.
+     * @return The last observed count, which differs from {@code expected} on timeout.
+     */
+    public static int count(WebDriver driver, By locator, int expected) {
+        int[] observed = new int[1];
+        try {
+            until(driver, "count", expected + " elements " + locator, d -> {
+                observed[0] = d.findElements(locator).size();
+                return observed[0] == expected;
+            });
+        } catch (TimeoutException e) {
+            // Report the last count seen
+        }
+        return observed[0];
+    }
+
+    /**
+     * Checks that no element matching the locator is displayed. Returns on the first poll after the document
+     * has finished parsing that finds nothing displayed, and keeps polling up to {@code wait.timeout.absent}
+     * for elements that are on their way out.
+     *
+     * @param driver  The WebDriver session.
+     * @param locator The element locator.
+     * @return True if no matching element is displayed, false if one is still displayed after the timeout.
+     */
+    public static boolean absent(WebDriver driver, By locator) {
+        Boolean observed = isDocumentParsed(driver) ? observe(driver, locator, "absent") : null;
+        if (observed != null) {
+            return observed;
+        }
+        try {
+            until(driver, "absent", "no visible element " + locator,
+                    d -> isDocumentParsed(d) && firstDisplayed(d, locator) == null);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Waits for a custom condition with the timeout configured for {@code condition}.
+     *
+     * @param driver      The WebDriver session.
+     * @param condition   The timeout key, e.g. "present" for {@code wait.timeout.present}.
+     * @param description What is waited for, used in the timeout message.
+     * @param check       Returns a non-null, non-false value once the condition holds.
+     * @param <T>         The result type.
+     * @return The value returned by {@code check}.
+     * @throws TimeoutException if the condition does not hold in time.
+     */
+    public static <T> T until(WebDriver driver, String condition, String description, Function<WebDriver, T> check) {
+        return until(driver, Duration.ofSeconds(ConfigLoader.getWaitTimeout(condition)), description, check);
+    }
+
+    /**
+     * Waits for a custom condition with an explicit timeout.
+     *
+     * @param driver      The WebDriver session.
+     * @param timeout     How long to wait.
+     * @param description What is waited for, used in the timeout message.
+     * @param check       Returns a non-null, non-false value once the condition holds.
+     * @param <T>         The result type.
+     * @return The value returned by {@code check}.
+     * @throws TimeoutException if the condition does not hold in time.
+     */
+    public static <T> T until(WebDriver driver, Duration timeout, String description, Function<WebDriver, T> check) {
+        long start = System.nanoTime();
+        try {
+            return new FluentWait<>(driver)
+                    .withTimeout(timeout)
+                    .pollingEvery(Duration.ofMillis(ConfigLoader.getWaitPollingMillis()))
+                    .ignoring(NoSuchElementException.class)
+                    .ignoring(StaleElementReferenceException.class)
+                    .withMessage("waiting for " + description)
+                    .until(check);
+        } finally {
+            waitedNanos.get()[0] += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Returns the time the current thread spent waiting since the last call, and resets it.
+     *
+     * @return The waited time in milliseconds.
+     */
+    public static long takeWaitedMillis() {
+        long[] nanos = waitedNanos.get();
+        long millis = nanos[0] / 1_000_000;
+        nanos[0] = 0;
+        return millis;
+    }
+
+    /**
+     * Waits for a condition with the MutationObserver script when {@code wait.mode=observer}.
+     *
+     * @param driver    The WebDriver session.
+     * @param locator   The element locator.
+     * @param condition "present", "visible" or "absent".
+     * @return True if the condition was met, false on timeout, or null if the observer cannot be used and the
+     *         caller should poll instead.
+     */
+    static Boolean observe(WebDriver driver, By locator, String condition) {
+        Observation observation = observeElements(driver, locator, condition);
+        return observation == null ? null : observation.met;
+    }
+
+    /**
+     * @return The outcome of the observer wait, or null if the caller should poll instead.
+     */
+    @SuppressWarnings("unchecked")
+    private static Observation observeElements(WebDriver driver, By locator, String condition) {
+        String[] target = DomSnapshot.scriptTarget(locator);
+        if (!"observer".equals(ConfigLoader.getWaitMode()) || target == null
+                || !(driver instanceof JavascriptExecutor)) {
+            return null;
+        }
+        long start = System.nanoTime();
+        long deadline = start + ConfigLoader.getWaitTimeout(condition) * 1_000_000_000L;
+        try {
+            while (true) {
+                long remainingMillis = Math.max(0, (deadline - System.nanoTime()) / 1_000_000);
+                long chunkMillis = Math.min(remainingMillis, MAX_OBSERVE_MILLIS);
+                try {
+                    Map<String, Object> result = (Map<String, Object>) ((JavascriptExecutor) driver)
+                            .executeAsyncScript(OBSERVER_SCRIPT, target[0], target[1], condition, chunkMillis,
+                                    OBSERVER_RECHECK_MILLIS);
+                    if (Boolean.TRUE.equals(result.get("met"))) {
+                        return new Observation(true, (List<WebElement>) result.get("elements"));
+                    }
+                } catch (ScriptTimeoutException e) {
+                    // The session's script timeout is shorter than the chunk; carry on until the deadline
+                } catch (JavascriptException e) {
+                    if (!isUnloadError(e)) {
+                        logger.debug("MutationObserver wait unavailable, polling instead: {}", e.getMessage());
+                        return null;
+                    }
+                    // The page navigated away while observing; observe the new document
+                }
+                if (System.nanoTime() >= deadline) {
+                    return new Observation(false, Collections.<WebElement>emptyList());
+                }
+            }
+        } finally {
+            waitedNanos.get()[0] += System.nanoTime() - start;
+        }
+    }
+
+    private static boolean isUnloadError(JavascriptException e) {
+        String message = String.valueOf(e.getMessage()).toLowerCase();
+        for (String unloadMessage : UNLOAD_MESSAGES) {
+            if (message.contains(unloadMessage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static WebElement firstDisplayed(WebDriver driver, By locator) {
+        for (WebElement element : driver.findElements(locator)) {
+            try {
+                if (element.isDisplayed()) {
+                    return element;
+                }
+            } catch (StaleElementReferenceException e) {
+                // Removed while checking, which counts as not displayed
+            }
+        }
+        return null;
+    }
+
+    private static boolean isDocumentParsed(WebDriver driver) {
+        try {
+            return !"loading".equals(((JavascriptExecutor) driver).executeScript("return document.readyState"));
+        } catch (WebDriverException | ClassCastException e) {
+            return true;
+        }
+    }
+
+    private static final class Observation {
+        private final boolean met;
+        private final List<WebElement> elements;
+
+        private Observation(boolean met, List<WebElement> elements) {
+            this.met = met;
+            this.elements = elements;
+        }
+    }
+}
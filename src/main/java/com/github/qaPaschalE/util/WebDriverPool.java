@@ -0,0 +1,325 @@
+package com.github.qaPaschalE.util;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.devtools.DevTools;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Keeps a fixed number of pre-started WebDriver sessions that are checked out per scenario
+ * and reset on check-in, so browser startup is paid once per session instead of once per scenario.
+ */
+class WebDriverPool {
+    private static final Logger logger = LoggerFactory.getLogger(WebDriverPool.class);
+    private static final long POLL_SLICE_MILLIS = 250;
+    private static final String CLEAR_STORAGE_SCRIPT =
+            "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}"
+            + "return location.origin;";
+
+    private final Supplier<WebDriver> factory;
+    private final int size;
+    private final int maxUses;
+    private final long checkoutTimeoutMillis;
+    private final BlockingQueue<PooledSession> idle = new LinkedBlockingQueue<>();
+    private final Map<WebDriver, PooledSession> leased = new ConcurrentHashMap<>();
+    private final AtomicInteger reserved = new AtomicInteger();
+    private final WebDriverPoolMetrics metrics = new WebDriverPoolMetrics();
+    private final ExecutorService starter;
+    private volatile boolean closed;
+
+    WebDriverPool(Supplier<WebDriver> factory, int size, int maxUses, long checkoutTimeoutMillis) {
+        if (size < 1) {
+            throw new IllegalArgumentException("WebDriver pool size must be at least 1.");
+        }
+        this.factory = factory;
+        this.size = size;
+        this.maxUses = maxUses;
+        this.checkoutTimeoutMillis = checkoutTimeoutMillis;
+        this.starter = Executors.newFixedThreadPool(size, runnable -> {
+            Thread thread = new Thread(runnable, "webdriver-pool-starter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts every pooled session in the background so the first checkouts find warm browsers.
+     */
+    void warmUp() {
+        while (tryReserve()) {
+            starter.submit(this::startSessionInBackground);
+        }
+        logger.info("Warming up WebDriver pool with {} session(s)", size);
+    }
+
+    /**
+     * Checks out an idle session, creating one on the calling thread if the pool still has capacity.
+     *
+     * @return A WebDriver owned by the caller until {@link #checkin(WebDriver, String)}.
+     * @throws IllegalStateException if no session becomes available within the checkout timeout.
+     */
+    WebDriver checkout() {
+        if (closed) {
+            throw new IllegalStateException("WebDriver pool has been shut down.");
+        }
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(checkoutTimeoutMillis);
+        while (true) {
+            PooledSession session = idle.poll();
+            if (session == null && tryReserve()) {
+                session = createSession();
+            }
+            if (session == null) {
+                try {
+                    session = idle.poll(POLL_SLICE_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for a pooled WebDriver session.", e);
+                }
+            }
+            if (session != null) {
+                if (!isHealthy(session)) {
+                    discard(session, "unhealthy");
+                    continue;
+                }
+                boolean reused = session.uses > 0;
+                session.uses++;
+                leased.put(session.driver, session);
+                trackOrigins(session);
+                metrics.recordCheckout(System.nanoTime() - start, reused);
+                logger.debug("Checked out pooled WebDriver (use {} of {})", session.uses, maxUses);
+                return session.driver;
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("No pooled WebDriver session became available within "
+                        + checkoutTimeoutMillis + " ms (pool size " + size + ").");
+            }
+        }
+    }
+
+    /**
+     * Returns a session to the pool. The session is reset before it is reused, or recycled when
+     * a recycle reason is given, it has reached its maximum number of uses, or the reset fails.
+     *
+     * @param driver        The driver previously returned by {@link #checkout()}.
+     * @param recycleReason A reason to recycle the session instead of reusing it, or null.
+     */
+    void checkin(WebDriver driver, String recycleReason) {
+        PooledSession session = leased.remove(driver);
+        if (session == null) {
+            logger.warn("Ignoring check-in of a WebDriver that is not leased from the pool.");
+            return;
+        }
+        if (closed) {
+            discard(session, "pool-closed");
+            return;
+        }
+        if (recycleReason == null && maxUses > 0 && session.uses >= maxUses) {
+            recycleReason = "max-uses";
+        }
+        if (recycleReason == null) {
+            try {
+                reset(session);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to reset pooled WebDriver: {}", e.getMessage());
+                recycleReason = "reset-error";
+            }
+        }
+        if (recycleReason != null) {
+            discard(session, recycleReason);
+            if (tryReserve()) {
+                starter.submit(this::startSessionInBackground);
+            }
+            return;
+        }
+        idle.offer(session);
+    }
+
+    WebDriverPoolMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Quits every session the pool still holds and stops background session startup.
+     */
+    void shutdown() {
+        closed = true;
+        starter.shutdownNow();
+        PooledSession session;
+        while ((session = idle.poll()) != null) {
+            quitQuietly(session.driver);
+        }
+        for (PooledSession leasedSession : leased.values()) {
+            quitQuietly(leasedSession.driver);
+        }
+        leased.clear();
+        logger.info("WebDriver pool shut down: {}", metrics);
+    }
+
+    private void startSessionInBackground() {
+        try {
+            PooledSession session = createSession();
+            if (closed) {
+                quitQuietly(session.driver);
+            } else {
+                idle.offer(session);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to start pooled WebDriver session", e);
+        }
+    }
+
+    private PooledSession createSession() {
+        try {
+            PooledSession session = new PooledSession(factory.get());
+            metrics.recordSessionCreated();
+            return session;
+        } catch (RuntimeException e) {
+            reserved.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private boolean tryReserve() {
+        while (true) {
+            int current = reserved.get();
+            if (current >= size) {
+                return false;
+            }
+            if (reserved.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void discard(PooledSession session, String reason) {
+        metrics.recordRecycle(reason);
+        reserved.decrementAndGet();
+        logger.info("Recycling pooled WebDriver after {} use(s): {}", session.uses, reason);
+        quitQuietly(session.driver);
+    }
+
+    private boolean isHealthy(PooledSession session) {
+        try {
+            session.driver.getWindowHandle();
+            return true;
+        } catch (RuntimeException e) {
+            logger.warn("Pooled WebDriver failed its health check: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Brings a session back to a blank state: a single new tab on about:blank, no cookies and no storage for any
+     * origin the scenario visited.
+     *
+     * <p>Web storage is cleared by script in every open window. On Chromium, everything stored for each visited
+     * origin (local storage, IndexedDB, cache storage, service workers, ...) is also cleared through
+     * {@code Storage.clearDataForOrigin}. The origins are the documents seen in network events since checkout,
+     * plus whatever the windows show now. Replacing the windows with a new tab drops session storage.</p>
+     */
+    private void reset(PooledSession session) {
+        WebDriver driver = session.driver;
+        Set<String> handles = driver.getWindowHandles();
+        for (String handle : handles) {
+            driver.switchTo().window(handle);
+            Object origin = ((JavascriptExecutor) driver).executeScript(CLEAR_STORAGE_SCRIPT);
+            if (origin instanceof String && ((String) origin).startsWith("http")) {
+                session.origins.add((String) origin);
+            }
+        }
+        String keep = driver.switchTo().newWindow(WindowType.TAB).getWindowHandle();
+        for (String handle : handles) {
+            driver.switchTo().window(handle).close();
+        }
+        driver.switchTo().window(keep);
+
+        if (driver instanceof HasCdp) {
+            for (String origin : session.origins) {
+                ((HasCdp) driver).executeCdpCommand("Storage.clearDataForOrigin",
+                        DevToolsSupport.params("origin", origin, "storageTypes", "all"));
+            }
+            // Clears cookies for every domain, not just the visited ones
+            ((HasCdp) driver).executeCdpCommand("Network.clearBrowserCookies", Collections.emptyMap());
+        } else {
+            driver.manage().deleteAllCookies();
+        }
+        session.origins.clear();
+        driver.get("about:blank");
+    }
+
+    /**
+     * Records the origin of every document the session loads until it is checked in, so {@link #reset} can
+     * clear their storage. The listener goes when the session's DevTools connection is released.
+     */
+    private static void trackOrigins(PooledSession session) {
+        if (!DevToolsSupport.isSupported(session.driver)) {
+            return;
+        }
+        try {
+            DevTools devTools = DevToolsSupport.attach(session.driver);
+            DevToolsSupport.on(devTools, "Network.requestWillBeSent", event -> {
+                Object request = event.get("request");
+                if ("Document".equals(event.get("type")) && request instanceof Map) {
+                    String origin = originOf(String.valueOf(((Map<?, ?>) request).get("url")));
+                    if (origin != null) {
+                        session.origins.add(origin);
+                    }
+                }
+            });
+            DevToolsSupport.send(devTools, "Network.enable", new HashMap<>());
+        } catch (RuntimeException e) {
+            logger.warn("Failed to track visited origins, only open windows are cleared on reset: {}",
+                    e.getMessage());
+        }
+    }
+
+    private static String originOf(String url) {
+        try {
+            URI uri = new URI(url);
+            if (uri.getHost() == null || !("http".equals(uri.getScheme()) || "https".equals(uri.getScheme()))) {
+                return null;
+            }
+            return uri.getScheme() + "://" + uri.getHost() + (uri.getPort() == -1 ? "" : ":" + uri.getPort());
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    private static void quitQuietly(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to quit pooled WebDriver: {}", e.getMessage());
+        }
+        BrowserProfile.deleteUserDataDir(driver);
+    }
+
+    private static final class PooledSession {
+        private final WebDriver driver;
+        private final Set<String> origins = ConcurrentHashMap.newKeySet();
+        private int uses;
+
+        private PooledSession(WebDriver driver) {
+            this.driver = driver;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.qaPaschalE.util;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters describing how the WebDriver session pool has been used during the run.
+ */
+public class WebDriverPoolMetrics {
+    private final AtomicInteger sessionsCreated = new AtomicInteger();
+    private final AtomicInteger checkouts = new AtomicInteger();
+    private final AtomicInteger reuses = new AtomicInteger();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final Map<String, AtomicInteger> recycleReasons = new ConcurrentHashMap<>();
+
+    void recordSessionCreated() {
+        sessionsCreated.incrementAndGet();
+    }
+
+    void recordCheckout(long waitNanos, boolean reused) {
+        checkouts.incrementAndGet();
+        if (reused) {
+            reuses.incrementAndGet();
+        }
+        totalWaitNanos.addAndGet(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    void recordRecycle(String reason) {
+        recycleReasons.computeIfAbsent(reason, key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    public int getSessionsCreated() {
+        return sessionsCreated.get();
+    }
+
+    public int getCheckouts() {
+        return checkouts.get();
+    }
+
+    /**
+     * @return The number of checkouts that were served by an already used session.
+     */
+    public int getReuseCount() {
+        return reuses.get();
+    }
+
+    public long getTotalWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get());
+    }
+
+    public long getMaxWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+    }
+
+    public long getAverageWaitMillis() {
+        int count = checkouts.get();
+        return count == 0 ? 0 : getTotalWaitMillis() / count;
+    }
+
+    /**
+     * @return Recycle counts keyed by reason (e.g. "max-uses", "scenario-failed", "reset-error").
+     */
+    public Map<String, Integer> getRecycleReasons() {
+        Map<String, Integer> snapshot = new TreeMap<>();
+        recycleReasons.forEach((reason, count) -> snapshot.put(reason, count.get()));
+        return snapshot;
+    }
+
+    @Override
+    public String toString() {
+        return "sessionsCreated=" + getSessionsCreated()
+                + ", checkouts=" + getCheckouts()
+                + ", reuses=" + getReuseCount()
+                + ", avgWaitMs=" + getAverageWaitMillis()
+                + ", maxWaitMs=" + getMaxWaitMillis()
+                + ", recycled=" + getRecycleReasons();
+    }
+}
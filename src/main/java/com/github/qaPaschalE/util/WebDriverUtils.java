@@ -1,45 +1,247 @@
 package com.github.qaPaschalE.util;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.SessionNotCreatedException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
+/**
+ * Owns the WebDriver sessions used by scenarios. Each thread gets its own session, so scenarios that run
+ * in parallel never share or quit each other's browser.
+ */
 public class WebDriverUtils {
+    private static final Logger logger = LoggerFactory.getLogger(WebDriverUtils.class);
 
-    private static WebDriver driver;
+    private static final ThreadLocal<WebDriver> driver = new ThreadLocal<>();
+    // Every live session and the thread that owns it, so leaked sessions can be quit at JVM exit
+    private static final Map<WebDriver, Thread> owners = new ConcurrentHashMap<>();
+    private static WebDriverPool pool;
+    private static BrowserContextManager contextManager;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(WebDriverUtils::quitOrphanedDrivers,
+                "webdriver-orphan-cleanup"));
+    }
 
     /**
-     * Initializes the WebDriver instance.
+     * Initializes the WebDriver instance for the current thread. The {@code webdriver.session.mode} setting
+     * decides where it comes from: {@code new} launches a browser, {@code pool} checks out a pre-started
+     * session and {@code context} opens an isolated browser context inside one shared browser.
+     *
+     * @throws IllegalStateException if the current thread already owns a WebDriver instance.
      */
     public static void setup() {
-        WebDriverManager.chromedriver().setup();
-        driver = new ChromeDriver();
-        driver.manage().window().maximize();
-        // Set a global implicit wait (e.g., 60 seconds)
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(60));
+        if (driver.get() != null) {
+            throw new IllegalStateException("The current thread already owns a WebDriver. Release it first.");
+        }
+        WebDriver newDriver;
+        switch (ConfigLoader.getSessionMode()) {
+            case "pool":
+                newDriver = getPool().checkout();
+                break;
+            case "context":
+                newDriver = getContextManager().acquire();
+                break;
+            default:
+                newDriver = createDriver();
+        }
+        driver.set(newDriver);
+        owners.put(newDriver, Thread.currentThread());
+        NetworkBlocker.applyConfigured(newDriver);
+        HarRecorder.start(newDriver);
+        PageReadiness.start(newDriver);
+        BrowserResourceMonitor.sample(newDriver, "start");
+        logger.debug("WebDriver assigned to thread {}", Thread.currentThread().getName());
     }
 
     /**
-     * Returns the WebDriver instance.
+     * Returns the WebDriver instance, starting the browser on first use so scenarios that never touch
+     * the UI never launch one.
      *
      * @return The WebDriver instance.
      */
     public static WebDriver getDriver() {
-        if (driver == null) {
-            throw new IllegalStateException("WebDriver has not been initialized. Call WebDriverUtils.setup() first.");
+        if (driver.get() == null) {
+            setup();
         }
-        return driver;
+        return driver.get();
     }
 
     /**
-     * Quits the WebDriver instance.
+     * Checks whether a browser session has been started for the current scenario.
+     *
+     * @return True if the current thread owns a WebDriver instance, false otherwise.
+     */
+    public static boolean hasDriver() {
+        return driver.get() != null;
+    }
+
+    /**
+     * Quits the WebDriver instance, returns it to the pool in pool mode, or disposes its browser context in
+     * context mode.
      */
     public static void quitDriver() {
-        if (driver != null) {
-            driver.quit();
-            driver = null; // Reset the driver to null after quitting
+        releaseDriver(false);
+    }
+
+    /**
+     * Releases the WebDriver instance at the end of a scenario. In pool mode the session is reset and
+     * returned to the pool, or recycled if the scenario failed and
+     * {@code webdriver.pool.recycle.on.failure} is enabled.
+     *
+     * @param scenarioFailed Whether the scenario that used the driver failed.
+     */
+    public static void releaseDriver(boolean scenarioFailed) {
+        WebDriver current = driver.get();
+        if (current != null) {
+            driver.remove();
+            owners.remove(current);
+            String resourceLimit = BrowserResourceMonitor.sample(current, "end");
+            HarRecorder.stop(current);
+            NetworkBlocker.stop(current);
+            PageReadiness.stop(current);
+            LocatorCache.stop(current);
+            try {
+                DevToolsSupport.release(current);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to release the DevTools connection: {}", e.getMessage());
+            }
+            switch (ConfigLoader.getSessionMode()) {
+                case "pool":
+                    String recycleReason = scenarioFailed && ConfigLoader.isPoolRecycleOnFailure()
+                            ? "scenario-failed" : resourceLimit;
+                    getPool().checkin(current, recycleReason);
+                    break;
+                case "context":
+                    getContextManager().release(current);
+                    break;
+                default:
+                    try {
+                        current.quit();
+                    } finally {
+                        BrowserProfile.deleteUserDataDir(current);
+                    }
+            }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the number of WebDriver instances currently owned by scenario threads.
+     *
+     * @return The number of live sessions.
+     */
+    public static int getActiveDriverCount() {
+        return owners.size();
+    }
+
+    /**
+     * Returns the pool usage counters, or null when pool mode has not been used.
+     *
+     * @return The pool metrics.
+     */
+    public static synchronized WebDriverPoolMetrics getPoolMetrics() {
+        return pool == null ? null : pool.getMetrics();
+    }
+
+    /**
+     * Launches a new browser configured from the selected browser profile.
+     */
+    static WebDriver createDriver() {
+        BrowserProfile profile = BrowserProfile.fromConfig();
+        WebDriver newDriver = startSession(profile.getBrowserType(), () -> newSession(profile));
+        profile.bindUserDataDir(newDriver);
+        profile.configure(newDriver);
+        return newDriver;
+    }
+
+    /**
+     * Opens a session that attaches to an already running browser. The window belongs to that browser, so only
+     * the timeouts are applied.
+     */
+    static WebDriver createDriver(ChromeOptions options) {
+        WebDriver newDriver = startSession("chrome", () -> newChromeSession(options));
+        BrowserProfile.configureTimeouts(newDriver);
+        return newDriver;
+    }
+
+    private static WebDriver startSession(String browserType, Supplier<WebDriver> sessionFactory) {
+        DriverBinaryResolver.Resolution resolution = DriverBinaryResolver.resolve(browserType);
+        WebDriver newDriver;
+        try {
+            newDriver = sessionFactory.get();
+        } catch (SessionNotCreatedException e) {
+            if (!"disk-cache".equals(resolution.getSource())) {
+                throw e;
+            }
+            // The cached driver no longer matches the installed browser, resolve it again
+            logger.warn("Cached {} driver could not start a session, resolving it again: {}", browserType,
+                    e.getMessage());
+            DriverBinaryResolver.invalidate(browserType);
+            DriverBinaryResolver.resolve(browserType);
+            newDriver = sessionFactory.get();
+        }
+        DriverBinaryResolver.recordBrowserVersion(browserType,
+                ((HasCapabilities) newDriver).getCapabilities().getBrowserVersion());
+        return newDriver;
+    }
+
+    private static WebDriver newSession(BrowserProfile profile) {
+        switch (profile.getBrowserType()) {
+            case "chrome":
+                return newChromeSession(profile.chromeOptions());
+            case "edge":
+                return new EdgeDriver(profile.edgeOptions());
+            case "firefox":
+                return new FirefoxDriver(profile.firefoxOptions());
+            default:
+                throw new IllegalArgumentException("Unsupported browser.type: " + profile.getBrowserType());
+        }
+    }
+
+    private static WebDriver newChromeSession(ChromeOptions options) {
+        // A shared chromedriver service avoids spawning a driver process per session
+        return DriverServiceManager.isShared() ? DriverServiceManager.newDriver(options) : new ChromeDriver(options);
+    }
+
+    private static synchronized WebDriverPool getPool() {
+        if (pool == null) {
+            pool = new WebDriverPool(WebDriverUtils::createDriver, ConfigLoader.getPoolSize(),
+                    ConfigLoader.getPoolMaxUses(), ConfigLoader.getPoolCheckoutTimeout() * 1000L);
+            pool.warmUp();
+            final WebDriverPool created = pool;
+            Runtime.getRuntime().addShutdownHook(new Thread(created::shutdown, "webdriver-pool-shutdown"));
+        }
+        return pool;
+    }
+
+    private static synchronized BrowserContextManager getContextManager() {
+        if (contextManager == null) {
+            contextManager = new BrowserContextManager(WebDriverUtils::createDriver, WebDriverUtils::createDriver);
+            final BrowserContextManager created = contextManager;
+            Runtime.getRuntime().addShutdownHook(new Thread(created::shutdown, "browser-context-shutdown"));
+        }
+        return contextManager;
+    }
+
+    private static void quitOrphanedDrivers() {
+        owners.forEach((orphan, owner) -> {
+            logger.warn("Quitting WebDriver that was never released by thread {}", owner.getName());
+            try {
+                orphan.quit();
+            } catch (RuntimeException e) {
+                logger.warn("Failed to quit WebDriver: {}", e.getMessage());
+            }
+            BrowserProfile.deleteUserDataDir(orphan);
+        });
+        owners.clear();
+    }
+}
@@ -1,40 +1,136 @@
 package com.github.qaPaschalE.util;
 
 import io.cucumber.java.After;
-import io.cucumber.java.Before;
+import io.cucumber.java.AfterStep;
 import io.cucumber.java.Scenario;
-import org.openqa.selenium.OutputType;
-import org.openqa.selenium.TakesScreenshot;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 public class hooks {
 
-    @Before
-    public void setUp() {
-        // Initialize WebDriver before each scenario
-        WebDriverUtils.setup();
-        System.out.println("WebDriver initialized for the scenario.");
+    // Per-step measurements for the current scenario: time spent in explicit waits, WebDriver
+    // calls avoided by reading DOM snapshots and fixed sleeps cut short by readiness waits
+    private final List<Long> stepWaitMillis = new ArrayList<>();
+    private final List<Long> stepRoundTripsSaved = new ArrayList<>();
+    private final List<Long> stepSleepSavedMillis = new ArrayList<>();
+
+    // WebDriver is created lazily by WebDriverUtils.getDriver() on the first UI step,
+    // so API and DB scenarios never start a browser.
+
+    @AfterStep
+    public void recordStepMetrics() {
+        stepWaitMillis.add(WaitEngine.takeWaitedMillis());
+        stepRoundTripsSaved.add((long) DomSnapshot.takeRoundTripsSaved());
+        stepSleepSavedMillis.add(PageReadiness.takeSleepSavedMillis());
+        if (WebDriverUtils.hasDriver()) {
+            ScreenshotTrail.capture(WebDriverUtils.getDriver(), stepWaitMillis.size());
+        }
     }
 
     @After
     public void tearDown(Scenario scenario) {
-        // Take a screenshot if the scenario fails
-        if (scenario.isFailed()) {
-            System.out.println("Scenario failed! Taking screenshot...");
-            try {
-                final byte[] screenshot = ((TakesScreenshot) WebDriverUtils.getDriver())
-                        .getScreenshotAs(OutputType.BYTES);
-                scenario.attach(screenshot, "image/png", "failure-screenshot");
-            } catch (Exception e) {
-                System.err.println("Failed to capture screenshot: " + e.getMessage());
+        // Everything before the release runs in the try, so releaseDriver in the finally always runs: a failing
+        // report or a dead session never leaks the driver (or its pool slot) into the next scenario
+        ArtifactPipeline.Pending failureArtifacts = null;
+        try {
+            reportPerStep(scenario, "Time spent waiting", stepWaitMillis, " ms");
+            reportPerStep(scenario, "WebDriver round trips saved by DOM snapshots", stepRoundTripsSaved, "");
+            reportPerStep(scenario, "Sleep time replaced by readiness waits", stepSleepSavedMillis, " ms");
+            String locatorCacheStats = LocatorCache.takeStats();
+            if (locatorCacheStats != null) {
+                scenario.log("Locator cache: " + locatorCacheStats);
+            }
+            for (String formFill : FormFiller.takeReports()) {
+                scenario.log("Form fill: " + formFill);
+            }
+            List<Map<String, Object>> pagePerformance = PagePerformance.takeRecords();
+            if (!pagePerformance.isEmpty()) {
+                scenario.attach(PagePerformance.toJson(pagePerformance).getBytes(StandardCharsets.UTF_8),
+                        "application/json", "page-performance");
+            }
+            for (ArtifactPipeline.Artifact artifact : VisualSnapshot.takeMismatches()) {
+                scenario.attach(artifact.getUri(), "text/uri-list", artifact.getName());
+            }
+            if (!WebDriverUtils.hasDriver()) {
+                return; // No browser was opened for this scenario
+            }
+
+            // Capture screenshot, DOM, console and HAR if the scenario fails; they are encoded in the background
+            // while the driver is released, and the report links to the stored files
+            if (scenario.isFailed()) {
+                System.out.println("Scenario failed! Capturing failure artifacts...");
+                failureArtifacts = ArtifactPipeline.capture(WebDriverUtils.getDriver());
+            }
+
+            File har = HarRecorder.finish(WebDriverUtils.getDriver());
+            if (har != null) {
+                if (failureArtifacts != null) {
+                    failureArtifacts.include("network.har", "application/json", har);
+                } else {
+                    try {
+                        Files.delete(har.toPath());
+                    } catch (IOException e) {
+                        System.err.println("Failed to delete HAR file " + har + ": " + e.getMessage());
+                    }
+                }
+            }
+
+            String blocked = NetworkBlocker.describe(WebDriverUtils.getDriver());
+            if (blocked != null) {
+                scenario.log(blocked);
+            }
+        } finally {
+            // Quit WebDriver after each scenario (or hand it back to the pool)
+            if (WebDriverUtils.hasDriver()) {
+                try {
+                    WebDriverUtils.releaseDriver(scenario.isFailed());
+                    System.out.println("WebDriver released successfully.");
+                } catch (Exception e) {
+                    System.err.println("Failed to quit WebDriver: " + e.getMessage());
+                }
             }
         }
 
-        // Quit WebDriver after each scenario
-        try {
-            WebDriverUtils.quitDriver();
-            System.out.println("WebDriver quit successfully.");
-        } catch (Exception e) {
-            System.err.println("Failed to quit WebDriver: " + e.getMessage());
+        if (failureArtifacts != null) {
+            for (ArtifactPipeline.Artifact artifact : failureArtifacts.await()) {
+                scenario.attach(artifact.getUri(), "text/uri-list", artifact.getName());
+                scenario.log("Stored " + artifact);
+            }
+        }
+
+        ScreenshotTrail.Result trail = ScreenshotTrail.finish(scenario.isFailed());
+        if (trail != null) {
+            scenario.log("Screenshot trail: " + trail.getSummary());
+            if (trail.getFilmstrip() != null) {
+                scenario.attach(trail.getFilmstrip().getUri(), "text/uri-list", trail.getFilmstrip().getName());
+                scenario.log("Stored " + trail.getFilmstrip());
+            }
+        }
+
+        String resources = BrowserResourceMonitor.takeReport();
+        if (resources != null) {
+            scenario.log("Browser resources at release: " + resources);
+        }
+    }
+
+    private static void reportPerStep(Scenario scenario, String label, List<Long> perStep, String unit) {
+        long total = 0;
+        List<String> steps = new ArrayList<>();
+        for (int i = 0; i < perStep.size(); i++) {
+            long value = perStep.get(i);
+            if (value > 0) {
+                total += value;
+                steps.add("step " + (i + 1) + ": " + value + unit);
+            }
+        }
+        if (total > 0) {
+            scenario.log(label + ": " + total + unit + " (" + String.join(", ", steps) + ")");
         }
     }
-}
\ No newline at end of file
+}
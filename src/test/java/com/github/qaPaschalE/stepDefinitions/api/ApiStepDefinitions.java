@@ -10,6 +10,7 @@ import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 import com.github.qaPaschalE.util.ConfigLoader;
 import com.github.qaPaschalE.util.ScenarioContext;
+import com.github.qaPaschalE.util.SessionStateStore;
 import org.testng.Assert;
 import java.io.IOException;
 import java.util.List;
@@ -536,6 +537,19 @@ public class ApiStepDefinitions {
                 "Cookie validation failed for: " + cookieName);
     }
 
+    /**
+     * Saves the cookies of the last response as a browser session state, so UI scenarios can start logged in
+     * with "I restore session".
+     *
+     * @param name The session state name.
+     */
+    @Then("I save response cookies as session {string}")
+    public void saveResponseCookiesAsSession(String name) {
+        Assert.assertFalse(response.getDetailedCookies().asList().isEmpty(),
+                "Response has no cookies to save as session: " + name);
+        SessionStateStore.saveResponseCookies(name, response);
+    }
+
     /**
      * Validates that the response time is under the specified threshold.
      *
@@ -1,25 +1,74 @@
 package com.github.qaPaschalE.stepDefinitions.ui;
 
+import io.cucumber.datatable.DataTable;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
 import com.github.qaPaschalE.util.ConfigLoader;
+import com.github.qaPaschalE.util.DomSnapshot;
+import com.github.qaPaschalE.util.ElementCollection;
+import com.github.qaPaschalE.util.FormFiller;
+import com.github.qaPaschalE.util.LocatorCache;
+import com.github.qaPaschalE.util.NetworkBlocker;
+import com.github.qaPaschalE.util.PagePerformance;
+import com.github.qaPaschalE.util.PageReadiness;
+import com.github.qaPaschalE.util.SessionStateStore;
+import com.github.qaPaschalE.util.TextIndex;
+import com.github.qaPaschalE.util.TextTyper;
+import com.github.qaPaschalE.util.VisualSnapshot;
+import com.github.qaPaschalE.util.WaitEngine;
 import org.openqa.selenium.*;
-import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import com.github.qaPaschalE.util.WebDriverUtils;
-import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import org.testng.Assert;
 import static org.testng.Assert.*; // Optional, for static imports
 
 public class UiStepDefinitions {
 
-    private final WebDriver driver = WebDriverUtils.getDriver();
-    private final WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
+    // The driver is looked up per call so each scenario thread uses its own browser session
+    private WebDriver driver() {
+        return WebDriverUtils.getDriver();
+    }
+
+    // Explicit waits replace the implicit wait; timeouts come from the wait.* settings
+    // Single-element lookups reuse the element resolved by an earlier step for the same locator
+    private WebElement waitForElement(By locator) {
+        return LocatorCache.element(driver(), locator, "present", l -> WaitEngine.present(driver(), l));
+    }
+
+    // Reads visibility, text, value and attributes of the matches in one script call
+    private DomSnapshot.ElementState waitForVisible(By locator) {
+        DomSnapshot snapshot = DomSnapshot.awaitVisible(driver(), locator);
+        DomSnapshot.ElementState displayed = snapshot.firstDisplayed();
+        return displayed != null ? displayed : snapshot.first();
+    }
+
+    private DomSnapshot.ElementState snapshotOf(By locator) {
+        return DomSnapshot.awaitPresent(driver(), locator).first();
+    }
+
+    private WebElement waitForClickable(By locator) {
+        return LocatorCache.element(driver(), locator, "clickable", l -> WaitEngine.clickable(driver(), l));
+    }
+
+    // Existence checks always look in the page; a cached element would answer for the previous step's DOM
+    private void waitForPresence(By locator) {
+        WaitEngine.present(driver(), locator);
+    }
+
+    private ElementCollection waitForElements(By locator) {
+        return ElementCollection.await(driver(), locator);
+    }
 
     private By getLocator(String selector) {
+        return LocatorCache.compile(driver(), selector, this::compileLocator);
+    }
+
+    private By compileLocator(String selector) {
         if (selector.startsWith("xpath:")) {
             return By.xpath(selector.substring(6).trim());
         } else if (selector.startsWith("//") || selector.startsWith("./") || selector.contains("/")) {
@@ -34,9 +83,13 @@ public class UiStepDefinitions {
         if (text.startsWith("xpath:")) {
             // Extract the XPath expression after "xpath:"
             return By.xpath(text.substring(6).trim());
+        } else if (text.startsWith("exact:")) {
+            return TextIndex.exactly(text.substring(6).trim());
+        } else if (text.startsWith("regex:")) {
+            return TextIndex.matching(text.substring(6).trim());
         } else {
-            // Default to XPath for text-based searches
-            return By.xpath("//*[contains(text(), '" + text + "')]");
+            // Default to a contains search answered from the page's text index
+            return TextIndex.containing(text);
         }
     }
 
@@ -55,12 +108,12 @@ public class UiStepDefinitions {
     }
 
     private WebElement lastFoundElement; // For single element
-    private List<WebElement> lastFoundElements; // For multiple elements
+    private ElementCollection lastFoundElements; // For multiple elements, fetched lazily
     // --- "Find Element By..." Steps ---
 
     private WebElement findElement(By locator) {
         try {
-            return WebDriverUtils.getDriver().findElement(locator);
+            return waitForElement(locator);
         } catch (NoSuchElementException e) {
             throw new AssertionError("Element not found: " + locator, e);
         }
@@ -126,7 +179,7 @@ public class UiStepDefinitions {
     public void iClickTheFirstElement() {
         Assert.assertNotNull(lastFoundElements, "No elements found to click.");
         Assert.assertFalse(lastFoundElements.isEmpty(), "No elements found to click.");
-        lastFoundElements.get(0).click();
+        lastFoundElements.first().click();
         lastFoundElements = null; // Reset after interaction
     }
 
@@ -151,7 +204,7 @@ public class UiStepDefinitions {
     public void iClickTheLastElement() {
         Assert.assertNotNull(lastFoundElements, "No elements found to click.");
         Assert.assertFalse(lastFoundElements.isEmpty(), "No elements found to click.");
-        WebElement lastElement = lastFoundElements.get(lastFoundElements.size() - 1);
+        WebElement lastElement = lastFoundElements.last();
         lastElement.click();
         lastFoundElements = null; // Reset after interaction
     }
@@ -159,7 +212,7 @@ public class UiStepDefinitions {
     @When("I type {string}")
     public void iTypeIntoTheElement(String text) {
         Assert.assertNotNull(lastFoundElement, "No element found to type into.");
-        lastFoundElement.sendKeys(text);
+        TextTyper.type(driver(), lastFoundElement, text);
         lastFoundElement = null; // Reset after interaction
         System.out.println(lastFoundElement);
 
@@ -180,7 +233,7 @@ public class UiStepDefinitions {
         // Type into the nth element
         WebElement nthElement = lastFoundElements.get(zeroBasedIndex);
         nthElement.clear(); // Clear existing text if necessary
-        nthElement.sendKeys(text);
+        TextTyper.type(driver(), nthElement, text);
     }
 
     @When("I clear")
@@ -276,7 +329,7 @@ public class UiStepDefinitions {
     @Then("I see button {string}")
     public void iSeeButton(String selector) {
         try {
-            WebElement button = driver.findElement(By.cssSelector(selector)); // Or By.xpath, etc.
+            DomSnapshot.ElementState button = waitForVisible(By.cssSelector(selector)); // Or By.xpath, etc.
             Assert.assertTrue(button.isDisplayed(), "Button not displayed: " + selector);
         } catch (NoSuchElementException e) {
             Assert.fail("Button not found: " + selector);
@@ -285,23 +338,13 @@ public class UiStepDefinitions {
 
     @Then("I do not see button {string}")
     public void iDoNotSeeButton(String selector) {
-        try {
-            wait.until(ExpectedConditions.invisibilityOfElementLocated(By.cssSelector(selector)));
-        } catch (org.openqa.selenium.TimeoutException e) {
-            // Element might still be present or take longer to disappear
-            try {
-                WebElement element = driver.findElement(By.cssSelector(selector));
-                Assert.assertTrue(element.isDisplayed(), "Button is displayed: " + selector);
-            } catch (NoSuchElementException noSuchElementException) {
-                // Expected, element is not present
-            }
-        }
+        Assert.assertTrue(WaitEngine.absent(driver(), By.cssSelector(selector)), "Button is displayed: " + selector);
     }
 
     @When("I click on selector {string}")
     public void iClickOnSelector(String cssSelector) {
         try {
-            WebElement element = WebDriverUtils.getDriver().findElement(By.cssSelector(cssSelector));
+            WebElement element = waitForClickable(By.cssSelector(cssSelector));
             ((JavascriptExecutor) WebDriverUtils.getDriver()).executeScript("arguments[0].scrollIntoView(true);",
                     element);
             element.click();
@@ -313,7 +356,7 @@ public class UiStepDefinitions {
     @When("I click on {string}")
     public void iClickOn(String locator) {
         try {
-            WebElement element = WebDriverUtils.getDriver().findElement(getLocator(locator));
+            WebElement element = waitForClickable(getLocator(locator));
             ((JavascriptExecutor) WebDriverUtils.getDriver()).executeScript("arguments[0].scrollIntoView(true);",
                     element);
             element.click();
@@ -325,7 +368,7 @@ public class UiStepDefinitions {
     @When("I click on xpath {string}")
     public void iClickOnXpath(String xpath) {
         try {
-            WebElement element = WebDriverUtils.getDriver().findElement(By.xpath(xpath));
+            WebElement element = waitForClickable(By.xpath(xpath));
             ((JavascriptExecutor) WebDriverUtils.getDriver()).executeScript("arguments[0].scrollIntoView(true);",
                     element);
             element.click();
@@ -341,7 +384,7 @@ public class UiStepDefinitions {
             By locator = getLocatorForText(text);
 
             // Find the element
-            WebElement element = WebDriverUtils.getDriver().findElement(locator);
+            WebElement element = waitForClickable(locator);
 
             // Scroll into view if necessary
             ((JavascriptExecutor) WebDriverUtils.getDriver()).executeScript("arguments[0].scrollIntoView(true);",
@@ -357,20 +400,33 @@ public class UiStepDefinitions {
 
     @When("I type {string} into locator {string}")
     public void iTypeInto(String text, String selector) {
-        WebElement element = WebDriverUtils.getDriver().findElement(getLocator(selector));
-        element.sendKeys(text);
+        WebElement element = waitForElement(getLocator(selector));
+        TextTyper.type(driver(), element, text);
+    }
+
+    @When("I fill the form {string} with:")
+    public void iFillTheForm(String selector, DataTable table) {
+        // Columns: selector, value and optionally mode ("type" for real keystrokes, otherwise scripted)
+        List<FormFiller.Field> fields = new ArrayList<>();
+        for (Map<String, String> row : table.asMaps()) {
+            String fieldSelector = row.get("selector");
+            Assert.assertNotNull(fieldSelector, "Form table needs a 'selector' column.");
+            fields.add(new FormFiller.Field(fieldSelector, compileLocator(fieldSelector), row.get("value"),
+                    "type".equalsIgnoreCase(row.get("mode"))));
+        }
+        FormFiller.fill(driver(), waitForElement(getLocator(selector)), fields);
     }
 
     @When("I clear {string}")
     public void iClear(String selector) {
-        WebElement element = WebDriverUtils.getDriver().findElement(getLocator(selector));
+        WebElement element = waitForElement(getLocator(selector));
         element.clear();
     }
 
     @When("I check {string}")
     public void iCheck(String selector) {
         try {
-            WebElement checkbox = WebDriverUtils.getDriver().findElement(getLocator(selector));
+            WebElement checkbox = waitForElement(getLocator(selector));
             if (!checkbox.isSelected()) {
                 checkbox.click();
             }
@@ -382,7 +438,7 @@ public class UiStepDefinitions {
     @When("I uncheck {string}")
     public void iUncheck(String selector) {
         try {
-            WebElement checkbox = WebDriverUtils.getDriver().findElement(getLocator(selector));
+            WebElement checkbox = waitForElement(getLocator(selector));
             if (checkbox.isSelected()) {
                 checkbox.click();
             }
@@ -394,7 +450,7 @@ public class UiStepDefinitions {
     @Then("I see heading {string}")
     public void iSeeHeading(String expectedText) {
         try {
-            WebElement heading = WebDriverUtils.getDriver().findElement(By.xpath(
+            DomSnapshot.ElementState heading = waitForVisible(By.xpath(
                     "//*[self::h1 or self::h2 or self::h3 or self::h4 or self::h5 or self::h6][contains(text(), '"
                             + expectedText + "')]"));
             Assert.assertTrue(heading.isDisplayed(), "Heading '" + expectedText + "' is not displayed.");
@@ -405,22 +461,13 @@ public class UiStepDefinitions {
 
     @Then("I do not see heading {string}")
     public void iDoNotSeeHeading(String selector) {
-        try {
-            wait.until(ExpectedConditions.invisibilityOfElementLocated(By.cssSelector(selector)));
-        } catch (org.openqa.selenium.TimeoutException e) {
-            try {
-                WebElement element = driver.findElement(By.cssSelector(selector));
-                Assert.assertTrue(element.isDisplayed(), "Heading is displayed: " + selector);
-            } catch (NoSuchElementException noSuchElementException) {
-                // Expected, element is not present
-            }
-        }
+        Assert.assertTrue(WaitEngine.absent(driver(), By.cssSelector(selector)), "Heading is displayed: " + selector);
     }
 
     @Then("I see label {string}")
     public void iSeeLabel(String selector) {
         try {
-            WebElement label = driver.findElement(By.cssSelector(selector));
+            DomSnapshot.ElementState label = waitForVisible(By.cssSelector(selector));
             Assert.assertTrue(label.isDisplayed(), "Label not displayed: " + selector);
         } catch (NoSuchElementException e) {
             Assert.fail("Label not found: " + selector);
@@ -429,22 +476,13 @@ public class UiStepDefinitions {
 
     @Then("I do not see label {string}")
     public void iDoNotSeeLabel(String selector) {
-        try {
-            wait.until(ExpectedConditions.invisibilityOfElementLocated(By.cssSelector(selector)));
-        } catch (org.openqa.selenium.TimeoutException e) {
-            try {
-                WebElement element = driver.findElement(By.cssSelector(selector));
-                Assert.assertTrue(element.isDisplayed(), "Label is displayed: " + selector);
-            } catch (NoSuchElementException noSuchElementException) {
-                // Expected, element is not present
-            }
-        }
+        Assert.assertTrue(WaitEngine.absent(driver(), By.cssSelector(selector)), "Label is displayed: " + selector);
     }
 
     @Then("I see link {string}")
     public void iSeeLink(String selector) {
         try {
-            WebElement link = driver.findElement(By.cssSelector(selector));
+            DomSnapshot.ElementState link = waitForVisible(By.cssSelector(selector));
             Assert.assertTrue(link.isDisplayed(), "Link not displayed: " + selector);
         } catch (NoSuchElementException e) {
             Assert.fail("Link not found: " + selector);
@@ -453,24 +491,14 @@ public class UiStepDefinitions {
 
     @Then("I do not see link {string}")
     public void iDoNotSeeLink(String selector) {
-        try {
-            wait.until(ExpectedConditions.invisibilityOfElementLocated(By.cssSelector(selector)));
-        } catch (org.openqa.selenium.TimeoutException e) {
-            try {
-                WebElement element = driver.findElement(By.cssSelector(selector));
-                Assert.assertTrue(element.isDisplayed(), "Link is displayed: " + selector);
-            } catch (NoSuchElementException noSuchElementException) {
-                // Expected, element is not present
-            }
-        }
+        Assert.assertTrue(WaitEngine.absent(driver(), By.cssSelector(selector)), "Link is displayed: " + selector);
     }
 
     @Then("I see text {string}")
     public void iSeeText(String expectedText) {
         try {
-            // Use XPath to find an element containing the expected text
-            WebElement element = WebDriverUtils.getDriver()
-                    .findElement(By.xpath("//*[contains(text(), '" + expectedText + "')]"));
+            // Look the text up in the page's text index
+            DomSnapshot.ElementState element = waitForVisible(getLocatorForText(expectedText));
 
             // Assert that the element is displayed
             Assert.assertTrue(element.isDisplayed(),
@@ -483,47 +511,38 @@ public class UiStepDefinitions {
 
     @Then("I do not see text {string}")
     public void iDoNotSeeText(String selector) {
-        try {
-            wait.until(ExpectedConditions.invisibilityOfElementLocated(By.cssSelector(selector)));
-        } catch (org.openqa.selenium.TimeoutException e) {
-            try {
-                WebElement element = driver.findElement(By.cssSelector(selector));
-                Assert.assertTrue(element.isDisplayed(), "Text is displayed: " + selector);
-            } catch (NoSuchElementException noSuchElementException) {
-                // Expected, element is not present
-            }
-        }
+        Assert.assertTrue(WaitEngine.absent(driver(), By.cssSelector(selector)), "Text is displayed: " + selector);
     }
 
     @Then("I see input value {string} in {string}")
     public void iSeeInputValue(String expectedValue, String selector) {
-        WebElement input = driver.findElement(By.cssSelector(selector));
-        String actualValue = input.getDomAttribute("value");
+        DomSnapshot.ElementState input = snapshotOf(By.cssSelector(selector));
+        String actualValue = input.getAttribute("value");
         assertEquals(actualValue, expectedValue, "Incorrect input value");
     }
 
     @Then("I see textarea value {string} in {string}")
     public void iSeeTextareaValue(String expectedValue, String selector) {
-        WebElement textarea = driver.findElement(By.cssSelector(selector));
-        String actualValue = textarea.getDomAttribute("value");
+        DomSnapshot.ElementState textarea = snapshotOf(By.cssSelector(selector));
+        String actualValue = textarea.getAttribute("value");
         assertEquals(actualValue, expectedValue, "Incorrect textarea value");
     }
 
     @When("I click on button {string}")
     public void iClickOnButton(String selector) {
-        driver.findElement(By.cssSelector(selector)).click();
+        waitForClickable(By.cssSelector(selector)).click();
     }
 
     @When("I click on label {string}")
     public void iClickOnLabel(String selector) {
-        driver.findElement(By.cssSelector(selector)).click();
+        waitForClickable(By.cssSelector(selector)).click();
     }
 
     @When("I click on link {string}")
     public void iClickOnLink(String linkText) {
         try {
             // Use the getLocator method to allow both CSS and XPath
-            WebElement link = WebDriverUtils.getDriver().findElement(getLocator("a:contains('" + linkText + "')"));
+            WebElement link = waitForClickable(getLocator("a:contains('" + linkText + "')"));
 
             // Scroll into view if necessary
             ((JavascriptExecutor) WebDriverUtils.getDriver()).executeScript("arguments[0].scrollIntoView(true);", link);
@@ -537,8 +556,8 @@ public class UiStepDefinitions {
 
     @When("I double click {string}")
     public void iDoubleClick(String selector) {
-        org.openqa.selenium.interactions.Actions actions = new org.openqa.selenium.interactions.Actions(driver);
-        WebElement element = driver.findElement(By.cssSelector(selector));
+        org.openqa.selenium.interactions.Actions actions = new org.openqa.selenium.interactions.Actions(driver());
+        WebElement element = waitForElement(By.cssSelector(selector));
         actions.doubleClick(element).perform();
     }
 
@@ -551,20 +570,20 @@ public class UiStepDefinitions {
 
     @When("I set value {string} in {string}")
     public void iSetValue(String value, String selector) {
-        WebElement element = driver.findElement(By.cssSelector(selector));
+        WebElement element = waitForElement(By.cssSelector(selector));
         element.clear();
         element.sendKeys(value);
     }
 
     @When("I submit form {string}")
     public void iSubmit(String selector) {
-        driver.findElement(By.cssSelector(selector)).submit();
+        waitForElement(By.cssSelector(selector)).submit();
     }
 
     @When("I trigger event {string} on {string}")
     public void iTriggerEvent(String eventName, String selector) {
         try {
-            WebElement element = WebDriverUtils.getDriver().findElement(By.cssSelector(selector));
+            WebElement element = waitForElement(By.cssSelector(selector));
             switch (eventName.toLowerCase()) {
                 case "click":
                     element.click();
@@ -585,58 +604,51 @@ public class UiStepDefinitions {
         }
     }
 
+    // With wait.sleep.smart=true fixed sleeps end as soon as the page is ready
     @When("I wait {int} milliseconds")
     public void iWaitMilliseconds(int milliseconds) {
-        try {
-            Thread.sleep(milliseconds);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Thread was interrupted while waiting.", e);
-        }
+        PageReadiness.sleep(WebDriverUtils.hasDriver() ? driver() : null, milliseconds);
     }
 
     @When("I wait {int} seconds")
     public void iWaitSeconds(int seconds) {
-        try {
-            Thread.sleep(seconds * 1000L);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
+        PageReadiness.sleep(WebDriverUtils.hasDriver() ? driver() : null, seconds * 1000L);
+    }
+
+    @When("I wait for network idle")
+    public void iWaitForNetworkIdle() {
+        PageReadiness.waitForNetworkIdle(driver());
+    }
+
+    @When("I wait until page is ready")
+    public void iWaitUntilPageIsReady() {
+        PageReadiness.waitUntilReady(driver());
     }
 
     @Then("I see element attribute {string} contains {string} in {string}")
     public void iSeeElementAttributeContains(String attribute, String expectedValue, String selector) {
-        WebElement element = driver.findElement(By.cssSelector(selector));
-        String actualValue = element.getDomAttribute(attribute);
+        DomSnapshot.ElementState element = snapshotOf(By.cssSelector(selector));
+        String actualValue = element.getAttribute(attribute);
         Assert.assertTrue(actualValue.contains(expectedValue),
                 "Attribute '" + attribute + "' does not contain: " + expectedValue);
     }
 
     @Then("I see element attribute {string} equals {string} in {string}")
     public void iSeeElementAttributeEquals(String attribute, String expectedValue, String selector) {
-        WebElement element = driver.findElement(By.cssSelector(selector));
-        String actualValue = element.getDomAttribute(attribute);
+        DomSnapshot.ElementState element = snapshotOf(By.cssSelector(selector));
+        String actualValue = element.getAttribute(attribute);
         assertEquals("Attribute '" + attribute + "' does not equal: " + expectedValue, expectedValue, actualValue);
     }
 
     @Then("I see element does not exist {string}")
     public void iSeeElementDoesNotExist(String selector) {
-        try {
-            wait.until(ExpectedConditions.invisibilityOfElementLocated(By.cssSelector(selector)));
-        } catch (org.openqa.selenium.TimeoutException e) {
-            try {
-                WebElement element = driver.findElement(By.cssSelector(selector));
-                Assert.assertTrue(element.isDisplayed(), "Element is displayed: " + selector);
-            } catch (NoSuchElementException noSuchElementException) {
-                // Expected, element is not present
-            }
-        }
+        Assert.assertTrue(WaitEngine.absent(driver(), By.cssSelector(selector)), "Element is displayed: " + selector);
     }
 
     @Then("I see element exists {string}")
     public void iSeeElementExists(String selector) {
         try {
-            driver.findElement(By.cssSelector(selector));
+            waitForPresence(By.cssSelector(selector));
         } catch (NoSuchElementException e) {
             fail("Element does not exist: " + selector);
         }
@@ -644,25 +656,21 @@ public class UiStepDefinitions {
 
     @Then("I see element has attribute {string} in {string}")
     public void iSeeElementHasAttribute(String attribute, String selector) {
-        WebElement element = driver.findElement(By.cssSelector(selector));
-        String actualValue = element.getDomAttribute(attribute);
+        DomSnapshot.ElementState element = snapshotOf(By.cssSelector(selector));
+        String actualValue = element.getAttribute(attribute);
         assertNotNull(actualValue, "Element does not have attribute: " + attribute);
     }
 
     @Then("I see element is not visible {string}")
     public void iSeeElementIsNotVisible(String selector) {
-        try {
-            WebElement element = driver.findElement(By.cssSelector(selector));
-            Assert.assertFalse(element.isDisplayed(), "Element is visible: " + selector);
-        } catch (NoSuchElementException e) {
-            // Element doesn't exist, which also means it's not visible
-        }
+        // A missing element also counts as not visible
+        Assert.assertTrue(WaitEngine.absent(driver(), By.cssSelector(selector)), "Element is visible: " + selector);
     }
 
     @Then("I see element is visible {string}")
     public void iSeeElementIsVisible(String selector) {
         try {
-            WebElement element = driver.findElement(By.cssSelector(selector));
+            DomSnapshot.ElementState element = waitForVisible(By.cssSelector(selector));
             Assert.assertTrue(element.isDisplayed(), "Element is not visible: " + selector);
 
         } catch (NoSuchElementException e) {
@@ -672,12 +680,12 @@ public class UiStepDefinitions {
 
     @When("I find form {string}")
     public void iFindForm(String selector) {
-        driver.findElement(By.cssSelector(selector)); // Assuming selector targets the form
+        waitForPresence(By.cssSelector(selector)); // Assuming selector targets the form
     }
 
     @When("I find heading by text {string}")
     public void iFindHeadingByText(String text) {
-        driver.findElement(By.xpath("//h1[contains(text(), '" + text + "')] | //h2[contains(text(), '" + text
+        waitForPresence(By.xpath("//h1[contains(text(), '" + text + "')] | //h2[contains(text(), '" + text
                 + "')] | //h3[contains(text(), '" + text + "')] | //h4[contains(text(), '" + text
                 + "')] | //h5[contains(text(), '" + text + "')] | //h6[contains(text(), '" + text + "')]"));
     }
@@ -693,7 +701,7 @@ public class UiStepDefinitions {
                 "[contains(translate(normalize-space(), 'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz'), " +
                 "'" + text.toLowerCase() + "')]";
 
-        List<WebElement> headings = driver.findElements(By.xpath(xpath));
+        ElementCollection headings = waitForElements(By.xpath(xpath));
 
         assertFalse(
                 headings.isEmpty(),
@@ -702,8 +710,8 @@ public class UiStepDefinitions {
 
     @When("I get children {string}")
     public void iGetChildren(String selector) {
-        WebElement parentElement = driver.findElement(getLocator(selector));
-        List<WebElement> children = parentElement.findElements(By.xpath("./*")); // Find direct children
+        WebElement parentElement = waitForElement(getLocator(selector));
+        ElementCollection children = ElementCollection.within(driver(), parentElement, By.xpath("./*")); // Direct children
         assertTrue(!children.isEmpty(), "No children found for selector: " + selector);
 
         // Store the children in lastFoundElements if needed
@@ -712,28 +720,28 @@ public class UiStepDefinitions {
 
     @When("I get element by display value {string}")
     public void iGetElementByDisplayValue(String displayValue) {
-        lastFoundElement = driver.findElement(getLocator("[value='" + displayValue + "']"));
+        lastFoundElement = waitForElement(getLocator("[value='" + displayValue + "']"));
         System.out.println(lastFoundElement);
 
     }
 
     @When("I get element by selector {string}")
     public void iGetElementBySelector(String selector) {
-        lastFoundElement = WebDriverUtils.getDriver().findElement(getLocator(selector));
+        lastFoundElement = waitForElement(getLocator(selector));
         Assert.assertNotNull(lastFoundElement, "No element found for selector: " + selector);
     }
 
     @When("I get elements by selector {string}")
     public void iGetElementsBySelector(String selector) {
-        lastFoundElements = WebDriverUtils.getDriver().findElements(getLocator(selector));
+        lastFoundElements = waitForElements(getLocator(selector));
         Assert.assertFalse(lastFoundElements.isEmpty(), "No elements found for selector: " + selector);
     }
 
     @When("I get first element {string}")
     public void iGetFirstElement(String selector) {
-        List<WebElement> elements = WebDriverUtils.getDriver().findElements(getLocator(selector));
+        ElementCollection elements = waitForElements(getLocator(selector));
         assertTrue(!elements.isEmpty(), "No elements found for selector: " + selector);
-        lastFoundElement = elements.get(0); // Store the first element
+        lastFoundElement = elements.first(); // Store the first element
         System.out.println(lastFoundElement);
 
     }
@@ -744,14 +752,14 @@ public class UiStepDefinitions {
         Assert.assertFalse(lastFoundElements.isEmpty(), "No elements found to retrieve the first element.");
 
         // Store the first element in lastFoundElement
-        lastFoundElement = lastFoundElements.get(0);
+        lastFoundElement = lastFoundElements.first();
     }
 
     @When("I get last element {string}")
     public void iGetLastElement(String selector) {
-        List<WebElement> elements = WebDriverUtils.getDriver().findElements(getLocator(selector));
+        ElementCollection elements = waitForElements(getLocator(selector));
         assertTrue(!elements.isEmpty(), "No elements found for selector: " + selector);
-        lastFoundElement = elements.get(elements.size() - 1); // Store the last element
+        lastFoundElement = elements.last(); // Store the last element
     }
 
     @When("I get last element")
@@ -760,14 +768,15 @@ public class UiStepDefinitions {
         Assert.assertFalse(lastFoundElements.isEmpty(), "No elements found to retrieve the last element.");
 
         // Store the last element in lastFoundElement
-        lastFoundElement = lastFoundElements.get(lastFoundElements.size() - 1);
+        lastFoundElement = lastFoundElements.last();
         System.out.println(lastFoundElement);
 
     }
 
     @When("I get nth element {string} at index {int}")
     public void iGetNthElement(String selector, int index) {
-        List<WebElement> elements = WebDriverUtils.getDriver().findElements(getLocator(selector));
+        ElementCollection elements = waitForElements(getLocator(selector));
+        assertTrue(index >= 0, "Index must not be negative.");
         assertTrue(elements.size() > index, "Element at index " + index + " not found for selector: " + selector);
         lastFoundElement = elements.get(index); // Store the nth element
     }
@@ -790,37 +799,40 @@ public class UiStepDefinitions {
 
     @When("I go back")
     public void iGoBack() {
-        driver.navigate().back();
+        LocatorCache.invalidate(driver());
+        driver().navigate().back();
     }
 
     @When("I go forward")
     public void iGoForward() {
-        driver.navigate().forward();
+        LocatorCache.invalidate(driver());
+        driver().navigate().forward();
     }
 
     @When("I reload the page")
     public void iReloadThePage() {
-        driver.navigate().refresh();
+        LocatorCache.invalidate(driver());
+        driver().navigate().refresh();
     }
 
     @When("I right click {string}")
     public void iRightClick(String selector) {
-        org.openqa.selenium.interactions.Actions actions = new org.openqa.selenium.interactions.Actions(driver);
-        WebElement element = driver.findElement(By.cssSelector(selector));
+        org.openqa.selenium.interactions.Actions actions = new org.openqa.selenium.interactions.Actions(driver());
+        WebElement element = waitForElement(By.cssSelector(selector));
         actions.contextClick(element).perform();
     }
 
     @When("I right click on text {string}")
     public void iRightClickOnText(String text) {
-        org.openqa.selenium.interactions.Actions actions = new org.openqa.selenium.interactions.Actions(driver);
-        WebElement element = driver.findElement(By.xpath("//*[contains(text(), '" + text + "')]"));
+        org.openqa.selenium.interactions.Actions actions = new org.openqa.selenium.interactions.Actions(driver());
+        WebElement element = waitForElement(getLocatorForText(text));
         actions.contextClick(element).perform();
     }
 
     @When("I select {string} from {string}")
     public void iSelect(String value, String selector) {
         org.openqa.selenium.support.ui.Select dropdown = new org.openqa.selenium.support.ui.Select(
-                driver.findElement(By.cssSelector(selector)));
+                waitForElement(By.cssSelector(selector)));
         dropdown.selectByValue(value);
     }
 
@@ -865,38 +877,38 @@ public class UiStepDefinitions {
 
     @When("I set attribute {string} to {string} in {string}")
     public void iSetAttribute(String attribute, String value, String selector) {
-        WebElement element = driver.findElement(By.cssSelector(selector));
-        ((org.openqa.selenium.JavascriptExecutor) driver)
+        WebElement element = waitForElement(By.cssSelector(selector));
+        ((org.openqa.selenium.JavascriptExecutor) driver())
                 .executeScript("arguments[0].setAttribute(arguments[1], arguments[2]);", element, attribute, value);
     }
 
     @When("I clear all cookies")
     public void iClearAllCookies() {
-        driver.manage().deleteAllCookies();
+        driver().manage().deleteAllCookies();
     }
 
     @When("I clear cookie {string}")
     public void iClearCookie(String name) {
-        driver.manage().deleteCookieNamed(name);
+        driver().manage().deleteCookieNamed(name);
     }
 
     @When("I click position {string}")
     public void iClickPosition(String selector) {
         // Needs further implementation using Actions class and offset if needed
-        driver.findElement(By.cssSelector(selector)).click();
+        waitForClickable(By.cssSelector(selector)).click();
     }
 
     @When("I double click position {string}")
     public void iDoubleClickPosition(String selector) {
         // Needs further implementation using Actions class and offset if needed
-        org.openqa.selenium.interactions.Actions actions = new org.openqa.selenium.interactions.Actions(driver);
-        WebElement element = driver.findElement(By.cssSelector(selector));
+        org.openqa.selenium.interactions.Actions actions = new org.openqa.selenium.interactions.Actions(driver());
+        WebElement element = waitForElement(By.cssSelector(selector));
         actions.doubleClick(element).perform();
     }
 
     @When("I get focused element")
     public void iGetFocusedElement() {
-        driver.switchTo().activeElement();
+        driver().switchTo().activeElement();
     }
 
     @Given("I go to URL {string}")
@@ -908,9 +920,64 @@ public class UiStepDefinitions {
             url = baseUrl + url; // Combine base URL and relative path
         }
         // Navigate to the resolved URL
+        LocatorCache.invalidate(driver());
         WebDriverUtils.getDriver().get(url);
     }
 
+    @Given("I block requests matching {string}")
+    public void iBlockRequestsMatching(String urlPattern) {
+        // Applies to requests made from now on, e.g. "*google-analytics.com*"
+        NetworkBlocker.block(driver(), urlPattern);
+    }
+
+    @Then("I see page load time is under {int}ms")
+    public void iSeePageLoadTimeIsUnder(int maxMillis) {
+        assertMetricBelow("load", "Page load time", maxMillis);
+    }
+
+    @Then("I see largest contentful paint under {int}ms")
+    public void iSeeLargestContentfulPaintUnder(int maxMillis) {
+        assertMetricBelow("largestContentfulPaint", "Largest contentful paint", maxMillis);
+    }
+
+    @Then("I see cumulative layout shift below {string}")
+    public void iSeeCumulativeLayoutShiftBelow(String maxShift) {
+        assertMetricBelow("cumulativeLayoutShift", "Cumulative layout shift", Double.parseDouble(maxShift));
+    }
+
+    private void assertMetricBelow(String metric, String label, double limit) {
+        Map<String, Object> record = PagePerformance.measure(driver());
+        Object value = record.get(metric);
+        Assert.assertNotNull(value, label + " is not reported by this browser for " + record.get("url"));
+        Assert.assertTrue(((Number) value).doubleValue() < limit,
+                label + " of " + record.get("url") + " is " + value + ", expected below " + limit);
+    }
+
+    @Then("I see the page matches snapshot {string}")
+    public void iSeeThePageMatchesSnapshot(String name) {
+        VisualSnapshot.Result result = VisualSnapshot.compare(driver(), name, Collections.emptyList());
+        Assert.assertTrue(result.isMatch(), result.getMessage());
+    }
+
+    @Then("I see the page matches snapshot {string} ignoring {string}")
+    public void iSeeThePageMatchesSnapshotIgnoring(String name, String selector) {
+        // The selector may be a list ("header .clock, #ad-banner") to mask several elements
+        VisualSnapshot.Result result = VisualSnapshot.compare(driver(), name, Collections.singletonList(selector));
+        Assert.assertTrue(result.isMatch(), result.getMessage());
+    }
+
+    @Given("I save session {string}")
+    public void iSaveSession(String name) {
+        // Cookies, localStorage and sessionStorage of the current page, e.g. right after logging in
+        SessionStateStore.save(driver(), name);
+    }
+
+    @Given("I restore session {string}")
+    public void iRestoreSession(String name) {
+        LocatorCache.invalidate(driver());
+        SessionStateStore.restore(driver(), name);
+    }
+
     @When("I pause")
     public void iPause() {
         // Cucumber doesn't have a direct "pause"
@@ -929,8 +996,8 @@ public class UiStepDefinitions {
 
     @When("I scroll into view {string}")
     public void iScrollIntoView(String selector) {
-        WebElement element = driver.findElement(By.cssSelector(selector));
-        ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", element);
+        WebElement element = waitForElement(By.cssSelector(selector));
+        ((org.openqa.selenium.JavascriptExecutor) driver()).executeScript("arguments[0].scrollIntoView(true);", element);
     }
 
     @When("I scroll to position {string}")
@@ -944,19 +1011,19 @@ public class UiStepDefinitions {
 
     @When("I scroll window to position x {int} y {int}")
     public void iScrollWindowToPosition(int x, int y) {
-        ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("window.scrollTo(arguments[0], arguments[1]);",
+        ((org.openqa.selenium.JavascriptExecutor) driver()).executeScript("window.scrollTo(arguments[0], arguments[1]);",
                 x, y);
     }
 
     @When("I select file {string} to {string}")
     public void iSelectFile(String filePath, String selector) {
-        driver.findElement(By.cssSelector(selector)).sendKeys(filePath); // Send keys to file input
+        waitForElement(By.cssSelector(selector)).sendKeys(filePath); // Send keys to file input
     }
 
     @When("I select option {string} from {string}")
     public void iSelectOption(String optionText, String selector) {
         org.openqa.selenium.support.ui.Select dropdown = new org.openqa.selenium.support.ui.Select(
-                driver.findElement(By.cssSelector(selector)));
+                waitForElement(By.cssSelector(selector)));
         dropdown.selectByVisibleText(optionText);
     }
 
@@ -979,13 +1046,13 @@ public class UiStepDefinitions {
 
     @When("I set local storage item {string} to {string}")
     public void iSetLocalStorageItem(String key, String value) {
-        ((org.openqa.selenium.JavascriptExecutor) driver)
+        ((org.openqa.selenium.JavascriptExecutor) driver())
                 .executeScript(String.format("window.localStorage.setItem('%s','%s')", key, value));
     }
 
     @When("I set session storage item {string} to {string}")
     public void iSetSessionStorageItem(String key, String value) {
-        ((org.openqa.selenium.JavascriptExecutor) driver)
+        ((org.openqa.selenium.JavascriptExecutor) driver())
                 .executeScript(String.format("window.sessionStorage.setItem('%s','%s')", key, value));
     }
 
@@ -997,60 +1064,60 @@ public class UiStepDefinitions {
 
     @When("I set viewport width {int} height {int}")
     public void iSetViewportWidthHeight(int width, int height) {
-        driver.manage().window().setSize(new org.openqa.selenium.Dimension(width, height));
+        driver().manage().window().setSize(new org.openqa.selenium.Dimension(width, height));
     }
 
     @When("I trigger event {string} on element {string}")
     public void iTriggerEventOnElement(String event, String selector) {
-        WebElement element = driver.findElement(By.cssSelector(selector));
+        WebElement element = waitForElement(By.cssSelector(selector));
         String script = String.format("$(arguments[0]).trigger('%s')", event);
-        ((org.openqa.selenium.JavascriptExecutor) driver).executeScript(script, element);
+        ((org.openqa.selenium.JavascriptExecutor) driver()).executeScript(script, element);
     }
 
     @When("I find input by label text {string}")
     public void iFindInputByLabelText(String labelText) {
         By locator = By.xpath("//label[contains(text(), '" + labelText + "')]/following-sibling::input");
-        lastFoundElement = driver.findElement(locator);
+        lastFoundElement = waitForElement(locator);
     }
 
     @When("I find element by alt text {string}")
     public void iFindElementByAltText(String altText) {
-        lastFoundElement = driver.findElement(getLocator("[alt='" + altText + "']"));
+        lastFoundElement = waitForElement(getLocator("[alt='" + altText + "']"));
     }
 
     @When("I find element by name {string}")
     public void iFindElementByName(String name) {
-        lastFoundElement = driver.findElement(getLocator("[name='" + name + "']"));
+        lastFoundElement = waitForElement(getLocator("[name='" + name + "']"));
     }
 
     @When("I find element by placeholder text {string}")
     public void iFindElementByPlaceholderText(String placeholderText) {
-        lastFoundElement = driver.findElement(getLocator("[placeholder='" + placeholderText + "']"));
+        lastFoundElement = waitForElement(getLocator("[placeholder='" + placeholderText + "']"));
     }
 
     @When("I find element by role {string}")
     public void iFindElementByRole(String role) {
-        lastFoundElement = driver.findElement(getLocator("[role='" + role + "']"));
+        lastFoundElement = waitForElement(getLocator("[role='" + role + "']"));
     }
 
     @When("I find element by selector {string}")
     public void iFindElementBySelector(String selector) {
-        lastFoundElement = driver.findElement(getLocator(selector));
+        lastFoundElement = waitForElement(getLocator(selector));
     }
 
     @When("I find element by testid {string}")
     public void iFindElementByTestid(String testid) {
-        lastFoundElement = driver.findElement(getLocator("[data-testid='" + testid + "']"));
+        lastFoundElement = waitForElement(getLocator("[data-testid='" + testid + "']"));
     }
 
     @When("I find element by text {string}")
     public void iFindElementByText(String text) {
-        lastFoundElement = driver.findElement(By.xpath("//*[contains(text(), '" + text + "')]"));
+        lastFoundElement = waitForElement(getLocatorForText(text));
     }
 
     @When("I find elements by text {string}")
     public void iFindElementsByText(String text) {
-        List<WebElement> elements = driver.findElements(By.xpath("//*[contains(text(), '" + text + "')]"));
+        ElementCollection elements = waitForElements(getLocatorForText(text));
         System.out.println(elements);
         Assert.assertFalse(elements.isEmpty(), "No elements found containing text: " + text);
 
@@ -1061,127 +1128,126 @@ public class UiStepDefinitions {
 
     @When("I find element by title {string}")
     public void iFindElementByTitle(String title) {
-        lastFoundElement = driver.findElement(getLocator("[title='" + title + "']"));
+        lastFoundElement = waitForElement(getLocator("[title='" + title + "']"));
     }
 
     @When("I find image by alt text {string}")
     public void iFindImageByAltText(String altText) {
-        lastFoundElement = driver.findElement(getLocator("img[alt='" + altText + "']"));
+        lastFoundElement = waitForElement(getLocator("img[alt='" + altText + "']"));
     }
 
     @When("I find input by display value {string}")
     public void iFindInputByDisplayValue(String displayValue) {
-        lastFoundElement = driver.findElement(getLocator("input[value='" + displayValue + "']"));
+        lastFoundElement = waitForElement(getLocator("input[value='" + displayValue + "']"));
     }
 
     @When("I find link by text {string}")
     public void iFindLinkByText(String text) {
-        lastFoundElement = driver.findElement(By.xpath("//a[contains(text(), '" + text + "')]"));
+        lastFoundElement = waitForElement(By.xpath("//a[contains(text(), '" + text + "')]"));
     }
 
     @When("I find select by display value {string}")
     public void iFindSelectByDisplayValue(String displayValue) {
-        lastFoundElement = driver
-                .findElement(By.xpath("//select/option[text()='" + displayValue + "']/parent::select"));
+        lastFoundElement = waitForElement(By.xpath("//select/option[text()='" + displayValue + "']/parent::select"));
     }
 
     @When("I find textarea by display value {string}")
     public void iFindTextareaByDisplayValue(String displayValue) {
-        lastFoundElement = driver.findElement(getLocator("textarea[value='" + displayValue + "']"));
+        lastFoundElement = waitForElement(getLocator("textarea[value='" + displayValue + "']"));
     }
 
     @When("I find textarea by placeholder text {string}")
     public void iFindTextareaByPlaceholderText(String placeholderText) {
-        lastFoundElement = driver.findElement(getLocator("textarea[placeholder='" + placeholderText + "']"));
+        lastFoundElement = waitForElement(getLocator("textarea[placeholder='" + placeholderText + "']"));
     }
 
     @When("I find buttons by text {string}")
     public void iFindButtonsByText(String text) {
-        lastFoundElements = driver.findElements(By.xpath("//button[contains(., '" + text + "')]"));
+        lastFoundElements = waitForElements(By.xpath("//button[contains(., '" + text + "')]"));
     }
 
     @When("I find elements by alt text {string}")
     public void iFindElementsByAltText(String altText) {
-        lastFoundElements = driver.findElements(getLocator("[alt='" + altText + "']"));
+        lastFoundElements = waitForElements(getLocator("[alt='" + altText + "']"));
     }
 
     @When("I find elements by label text {string}")
     public void iFindElementsByLabelText(String labelText) {
-        lastFoundElements = driver.findElements(By.xpath("//label[normalize-space()='" + labelText + "']" +
+        lastFoundElements = waitForElements(By.xpath("//label[normalize-space()='" + labelText + "']" +
                 "| //label[normalize-space()='" + labelText + "']//input" +
                 "| //*[@id=//label[normalize-space()='" + labelText + "']/@for]"));
     }
 
     @When("I find elements by name {string}")
     public void iFindElementsByName(String name) {
-        lastFoundElements = driver.findElements(getLocator("[name='" + name + "']"));
+        lastFoundElements = waitForElements(getLocator("[name='" + name + "']"));
     }
 
     @When("I find elements by placeholder text {string}")
     public void iFindElementsByPlaceholderText(String placeholderText) {
-        lastFoundElements = driver.findElements(getLocator("[placeholder='" + placeholderText + "']"));
+        lastFoundElements = waitForElements(getLocator("[placeholder='" + placeholderText + "']"));
     }
 
     @When("I find elements by role {string}")
     public void iFindElementsByRole(String role) {
-        lastFoundElements = driver.findElements(getLocator("[role='" + role + "']"));
+        lastFoundElements = waitForElements(getLocator("[role='" + role + "']"));
     }
 
     @When("I find elements by testid {string}")
     public void iFindElementsByTestid(String testid) {
-        lastFoundElements = driver.findElements(getLocator("[data-testid='" + testid + "']"));
+        lastFoundElements = waitForElements(getLocator("[data-testid='" + testid + "']"));
     }
 
     @When("I find elements by title {string}")
     public void iFindElementsByTitle(String title) {
-        lastFoundElements = driver.findElements(getLocator("[title='" + title + "']"));
+        lastFoundElements = waitForElements(getLocator("[title='" + title + "']"));
     }
 
     @When("I find images by alt text {string}")
     public void iFindImagesByAltText(String altText) {
-        lastFoundElements = driver.findElements(getLocator("img[alt='" + altText + "']"));
+        lastFoundElements = waitForElements(getLocator("img[alt='" + altText + "']"));
     }
 
     @When("I find inputs by name {string}")
     public void iFindInputsByName(String name) {
-        lastFoundElements = driver.findElements(getLocator("input[name='" + name + "']"));
+        lastFoundElements = waitForElements(getLocator("input[name='" + name + "']"));
     }
 
     @When("I find inputs by placeholder text {string}")
     public void iFindInputsByPlaceholderText(String placeholderText) {
-        lastFoundElements = driver.findElements(getLocator("input[placeholder='" + placeholderText + "']"));
+        lastFoundElements = waitForElements(getLocator("input[placeholder='" + placeholderText + "']"));
     }
 
     @When("I find links by text {string}")
     public void iFindLinksByText(String text) {
-        lastFoundElements = driver.findElements(By.xpath("//a[contains(text(), '" + text + "')]"));
+        lastFoundElements = waitForElements(By.xpath("//a[contains(text(), '" + text + "')]"));
     }
 
     @When("I find textareas by placeholder text {string}")
     public void iFindTextareasByPlaceholderText(String placeholderText) {
-        lastFoundElements = driver.findElements(getLocator("textarea[placeholder='" + placeholderText + "']"));
+        lastFoundElements = waitForElements(getLocator("textarea[placeholder='" + placeholderText + "']"));
     }
 
     @Then("I see count elements {string} is {int}")
     public void iSeeCountElements(String selector, int count) {
-        List<WebElement> elements = driver.findElements(By.cssSelector(selector));
-        assertEquals(count, elements.size(), "Incorrect element count for selector: " + selector);
+        int actualCount = WaitEngine.count(driver(), By.cssSelector(selector), count);
+        assertEquals(count, actualCount, "Incorrect element count for selector: " + selector);
     }
 
     @Then("I see document title {string}")
     public void iSeeDocumentTitle(String title) {
-        assertEquals("Incorrect document title", title, driver.getTitle());
+        assertEquals("Incorrect document title", title, driver().getTitle());
     }
 
     @Then("I see document title contains {string}")
     public void iSeeDocumentTitleContains(String titlePart) {
-        assertTrue(driver.getTitle().contains(titlePart), "Document title does not contain: " + titlePart);
+        assertTrue(driver().getTitle().contains(titlePart), "Document title does not contain: " + titlePart);
     }
 
     @Then("I see input value contains {string} in {string}")
     public void iSeeInputValueContains(String expectedValuePart, String selector) {
-        WebElement input = driver.findElement(By.cssSelector(selector));
-        String actualValue = input.getDomAttribute("value");
+        DomSnapshot.ElementState input = snapshotOf(By.cssSelector(selector));
+        String actualValue = input.getAttribute("value");
         assertTrue(actualValue.contains(expectedValuePart), "Input value does not contain: " + expectedValuePart);
     }
 
@@ -1189,11 +1255,11 @@ public class UiStepDefinitions {
     public void iSeePathname(String expectedPathname) {
         java.net.URL url;
         try {
-            url = new java.net.URL(driver.getCurrentUrl());
+            url = new java.net.URL(driver().getCurrentUrl());
             String actualPathname = url.getPath();
             assertEquals("Incorrect pathname", expectedPathname, actualPathname);
         } catch (java.net.MalformedURLException e) {
-            fail("Malformed URL: " + driver.getCurrentUrl());
+            fail("Malformed URL: " + driver().getCurrentUrl());
         }
     }
 
@@ -1201,49 +1267,49 @@ public class UiStepDefinitions {
     public void iSeePathnameContains(String expectedPathnamePart) {
         java.net.URL url;
         try {
-            url = new java.net.URL(driver.getCurrentUrl());
+            url = new java.net.URL(driver().getCurrentUrl());
             String actualPathname = url.getPath();
             assertTrue(actualPathname.contains(expectedPathnamePart),
                     "Pathname does not contain: " + expectedPathnamePart);
         } catch (java.net.MalformedURLException e) {
-            fail("Malformed URL: " + driver.getCurrentUrl());
+            fail("Malformed URL: " + driver().getCurrentUrl());
         }
     }
 
     @Then("I see URL {string}")
     public void iSeeURL(String expectedUrl) {
-        assertEquals("Incorrect URL", expectedUrl, driver.getCurrentUrl());
+        assertEquals("Incorrect URL", expectedUrl, driver().getCurrentUrl());
     }
 
     @Then("I see URL contains {string}")
     public void iSeeURLContains(String expectedUrlPart) {
-        assertTrue(driver.getCurrentUrl().contains(expectedUrlPart), "URL does not contain: " + expectedUrlPart);
+        assertTrue(driver().getCurrentUrl().contains(expectedUrlPart), "URL does not contain: " + expectedUrlPart);
     }
 
     @Then("I see value {string} in {string}")
     public void iSeeValue(String expectedValue, String selector) {
-        WebElement element = driver.findElement(By.cssSelector(selector));
-        String actualValue = element.getDomAttribute("value");
+        DomSnapshot.ElementState element = snapshotOf(By.cssSelector(selector));
+        String actualValue = element.getAttribute("value");
         assertEquals("Incorrect value", expectedValue, actualValue);
     }
 
     @Then("I see visible text {string} in {string}")
     public void iSeeVisibleText(String expectedText, String selector) {
-        WebElement element = driver.findElement(By.cssSelector(selector));
+        DomSnapshot.ElementState element = snapshotOf(By.cssSelector(selector));
         String actualText = element.getText();
         assertEquals("Incorrect visible text", expectedText, actualText);
     }
 
     @Then("I do not see value {string} in {string}")
     public void iDoNotSeeValue(String expectedValue, String selector) {
-        WebElement element = driver.findElement(By.cssSelector(selector));
-        String actualValue = element.getDomAttribute("value");
+        DomSnapshot.ElementState element = snapshotOf(By.cssSelector(selector));
+        String actualValue = element.getAttribute("value");
         assertNotEquals("Value should not be: " + expectedValue, expectedValue, actualValue);
     }
 
     @Then("I do not see visible text {string} in {string}")
     public void iDoNotSeeVisibleText(String expectedText, String selector) {
-        WebElement element = driver.findElement(By.cssSelector(selector));
+        DomSnapshot.ElementState element = snapshotOf(By.cssSelector(selector));
         String actualText = element.getText();
         assertNotEquals("Visible text should not be: " + expectedText, expectedText, actualText);
     }
@@ -2,7 +2,6 @@
 package runners;
 
 import com.github.qaPaschalE.util.ConfigLoader;
-import io.cucumber.testng.AbstractTestNGCucumberTests;
 import io.cucumber.testng.CucumberOptions;
 import org.testng.annotations.BeforeClass;
 
@@ -16,7 +15,11 @@ import org.testng.annotations.BeforeClass;
         },
         monochrome = true
 )
-public class DbTestRunnerTestCase extends AbstractTestNGCucumberTests {
+public class DbTestRunnerTestCase extends ParallelCucumberTests {
+
+    public DbTestRunnerTestCase() {
+        super("db");
+    }
 
     @BeforeClass
     public void setup() {
@@ -0,0 +1,75 @@
+// src/test/java/runners/ParallelCucumberTests.java
+package runners;
+
+import com.github.qaPaschalE.util.ConfigLoader;
+import io.cucumber.testng.AbstractTestNGCucumberTests;
+import io.cucumber.testng.FeatureWrapper;
+import io.cucumber.testng.PickleWrapper;
+import org.testng.ITestContext;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlSuite;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Base runner that executes scenarios through a parallel data provider. How many scenarios of a runner
+ * run at once is controlled by {@code parallel.<runner>.enabled} and {@code parallel.<runner>.threads}.
+ * A disabled runner hands its scenarios to a sequential data provider instead, so they run one at a time in
+ * feature file order; the data provider of the other mode returns nothing.
+ */
+public abstract class ParallelCucumberTests extends AbstractTestNGCucumberTests {
+
+    private final String runnerName;
+    private boolean parallel;
+    private Semaphore permits;
+
+    protected ParallelCucumberTests(String runnerName) {
+        this.runnerName = runnerName;
+    }
+
+    @BeforeClass(alwaysRun = true)
+    public void configureParallelism(ITestContext context) {
+        parallel = ConfigLoader.isParallelEnabled(runnerName);
+        int threads = parallel ? Math.max(1, ConfigLoader.getParallelThreads(runnerName)) : 1;
+        permits = new Semaphore(threads, true);
+
+        // The data provider pool is shared by all runners, so size it for the widest one
+        XmlSuite suite = context.getSuite().getXmlSuite();
+        synchronized (XmlSuite.class) {
+            if (suite.getDataProviderThreadCount() < threads) {
+                suite.setDataProviderThreadCount(threads);
+            }
+        }
+        ScenarioExecutorServiceFactory.useForCurrentThread(ConfigLoader.getParallelExecutor(runnerName));
+        System.out.println("Running '" + runnerName + "' scenarios with up to " + threads + " thread(s).");
+    }
+
+    @Override
+    @DataProvider(parallel = true)
+    public Object[][] scenarios() {
+        return parallel ? super.scenarios() : new Object[0][];
+    }
+
+    @DataProvider
+    public Object[][] scenariosInOrder() {
+        return parallel ? new Object[0][] : super.scenarios();
+    }
+
+    @Override
+    @Test(groups = "cucumber", description = "Runs Cucumber Scenarios", dataProvider = "scenarios")
+    public void runScenario(PickleWrapper pickleWrapper, FeatureWrapper featureWrapper) {
+        permits.acquireUninterruptibly();
+        try {
+            super.runScenario(pickleWrapper, featureWrapper);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Test(groups = "cucumber", description = "Runs Cucumber Scenarios", dataProvider = "scenariosInOrder")
+    public void runScenarioInOrder(PickleWrapper pickleWrapper, FeatureWrapper featureWrapper) {
+        super.runScenario(pickleWrapper, featureWrapper);
+    }
+}
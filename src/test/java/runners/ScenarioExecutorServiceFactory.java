@@ -0,0 +1,56 @@
+// src/test/java/runners/ScenarioExecutorServiceFactory.java
+package runners;
+
+import org.testng.IExecutorServiceFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TestNG thread pool factory that can run a runner's parallel scenarios on virtual threads.
+ * Registered through the {@code threadpoolfactoryclass} surefire property; runners opt in with
+ * {@code parallel.<runner>.executor=virtual}. Falls back to TestNG's regular pool otherwise or when the
+ * JVM has no virtual threads.
+ */
+public class ScenarioExecutorServiceFactory implements IExecutorServiceFactory {
+
+    // TestNG creates the data provider pool on the thread that ran the runner's @BeforeClass
+    private static final ThreadLocal<String> executorKind = new ThreadLocal<>();
+
+    static void useForCurrentThread(String kind) {
+        executorKind.set(kind);
+    }
+
+    @Override
+    public ExecutorService create(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                                  BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory) {
+        try {
+            if ("virtual".equals(executorKind.get())) {
+                ExecutorService virtualExecutor = newVirtualThreadExecutor();
+                if (virtualExecutor != null) {
+                    return virtualExecutor;
+                }
+            }
+            return new ThreadPoolExecutor(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue,
+                    threadFactory);
+        } finally {
+            // The choice applies to this pool only; a pooled TestNG thread must not carry it to the next runner
+            executorKind.remove();
+        }
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            System.err.println("Virtual threads are not available on this JVM, using platform threads.");
+            return null;
+        }
+    }
+}
@@ -2,7 +2,6 @@
 package runners;
 
 import com.github.qaPaschalE.util.ConfigLoader;
-import io.cucumber.testng.AbstractTestNGCucumberTests;
 import io.cucumber.testng.CucumberOptions;
 import org.testng.annotations.BeforeClass;
 
@@ -16,7 +15,11 @@ import org.testng.annotations.BeforeClass;
         },
         monochrome = true
 )
-public class UiTestRunnerTestCase extends AbstractTestNGCucumberTests {
+public class UiTestRunnerTestCase extends ParallelCucumberTests {
+
+    public UiTestRunnerTestCase() {
+        super("ui");
+    }
 
     @BeforeClass
     public void setup() {